@@ -0,0 +1,148 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AnimationScheduler - Satu frame clock untuk semua animasi di UI.
+ *
+ * Semua animasi (lempar dadu, shake, bounce, langkah token) didaftarkan ke sini
+ * dengan interval masing-masing. Hanya ada satu javax.swing.Timer yang berdetak
+ * tiap frame dan memajukan animasi yang sudah jatuh tempo, dan timer itu berhenti
+ * sendiri jika tidak ada animasi aktif. Semua method dipanggil dari EDT.
+ */
+public class AnimationScheduler {
+
+    public static final int DEFAULT_FRAME_MS = 10;
+
+    public interface Animation {
+        /** Satu langkah animasi. Kembalikan false jika animasi sudah selesai. */
+        boolean tick();
+
+        /** Dipanggil sekali saat animasi selesai (normal maupun di-skip). Tidak dipanggil saat cancel. */
+        default void finish() {}
+    }
+
+    private static final class Entry {
+        Animation animation;
+        long intervalNanos;
+        long nextDue;
+        boolean done;
+    }
+
+    private final javax.swing.Timer clock;
+    private final List<Entry> active = new ArrayList<>();
+    private boolean skipAnimations = false;
+
+    public AnimationScheduler() {
+        this(DEFAULT_FRAME_MS);
+    }
+
+    public AnimationScheduler(int frameMs) {
+        clock = new javax.swing.Timer(frameMs, e -> onFrame());
+        clock.setCoalesce(true);
+    }
+
+    public void setFramePeriod(int frameMs) {
+        clock.setDelay(frameMs);
+    }
+
+    public int getFramePeriod() { return clock.getDelay(); }
+
+    /** Jika true, animasi baru langsung dijalankan sampai selesai tanpa menunggu frame. */
+    public void setSkipAnimations(boolean skip) {
+        this.skipAnimations = skip;
+        if (skip) skipAll();
+    }
+
+    public boolean isSkippingAnimations() { return skipAnimations; }
+
+    /**
+     * Menjadwalkan animasi dengan interval antar tick. Jika animasi yang sama masih
+     * aktif, jadwalnya diulang dari awal.
+     */
+    public void schedule(Animation animation, int intervalMs) {
+        if (skipAnimations) {
+            cancel(animation);
+            runToEnd(animation);
+            return;
+        }
+
+        Entry entry = find(animation);
+        if (entry == null) {
+            entry = new Entry();
+            entry.animation = animation;
+            active.add(entry);
+        }
+        entry.done = false;
+        entry.intervalNanos = intervalMs * 1_000_000L;
+        entry.nextDue = System.nanoTime() + entry.intervalNanos;
+
+        if (!clock.isRunning()) clock.start();
+    }
+
+    public void cancel(Animation animation) {
+        Entry entry = find(animation);
+        if (entry != null) entry.done = true;
+    }
+
+    public boolean isActive(Animation animation) {
+        return find(animation) != null;
+    }
+
+    public boolean hasActiveAnimations() {
+        for (Entry e : active) {
+            if (!e.done) return true;
+        }
+        return false;
+    }
+
+    /** Menyelesaikan semua animasi aktif sekarang juga. */
+    public void skipAll() {
+        // Animasi yang selesai bisa menjadwalkan animasi lanjutan, jadi ulangi sampai kosong
+        while (hasActiveAnimations()) {
+            for (int i = 0; i < active.size(); i++) {
+                Entry e = active.get(i);
+                if (e.done) continue;
+                e.done = true;
+                runToEnd(e.animation);
+            }
+            compact();
+        }
+        clock.stop();
+    }
+
+    private void runToEnd(Animation animation) {
+        while (animation.tick()) { }
+        animation.finish();
+    }
+
+    private void onFrame() {
+        long now = System.nanoTime();
+        // Index loop: animasi baru yang dijadwalkan dari tick/finish ikut masuk ke list
+        for (int i = 0; i < active.size(); i++) {
+            Entry e = active.get(i);
+            if (e.done || now < e.nextDue) continue;
+
+            // Satu tick per frame; jika tertinggal (mis. EDT macet), jadwal digeser dari
+            // sekarang alih-alih mengejar dengan burst tick di frame-frame berikutnya
+            long due = e.nextDue + e.intervalNanos;
+            e.nextDue = due > now ? due : now + e.intervalNanos;
+            if (!e.animation.tick()) {
+                e.done = true;
+                e.animation.finish();
+            }
+        }
+        compact();
+        if (active.isEmpty()) clock.stop();
+    }
+
+    private Entry find(Animation animation) {
+        for (Entry e : active) {
+            if (e.animation == animation && !e.done) return e;
+        }
+        return null;
+    }
+
+    private void compact() {
+        active.removeIf(e -> e.done);
+    }
+}
@@ -14,13 +14,16 @@ import javax.imageio.ImageIO;
  */
 public class BoardEditor extends JFrame {
 
-    private static final int BOARD_SIZE = 64;
+    public static final int DEFAULT_BOARD_SIZE = 64;
+    public static final int MIN_BOARD_SIZE = 2;
     // --- BOARD_DIM DISAMAKAN DENGAN SNAKELADDER.JAVA (640x680) ---
     private static final Dimension BOARD_DIM = new Dimension(640, 680);
     // -------------------------------------------------------------
-    private static final String POSITION_FILE = "node_positions.txt";
 
+    private final int boardSize;
     private BoardGraph boardGraph;
+    // Skor node tetap dari file yang dimuat, ikut ditulis ulang saat disimpan
+    private byte[] loadedNodeScores;
     private BoardEditorPanel editorPanel;
     private Image backgroundImage;
 
@@ -29,148 +32,532 @@ public class BoardEditor extends JFrame {
     public static class Player {
         public String name;
         public int position;
-        public Stack<Integer> moveHistory;
+        public IntStack moveHistory;
         public Color tokenColor;
 
         public Player(String name, Color color) {
             this.name = name;
             this.position = 1;
-            this.moveHistory = new Stack<>();
+            this.moveHistory = new IntStack();
             this.tokenColor = color;
         }
     }
 
     public static class Dice {
-        private Random random = new Random();
+        private final SplittableRandom random;
+
+        public Dice() { this(new SplittableRandom()); }
+        public Dice(SplittableRandom random) { this.random = random; }
+
         public int rollNumber()  { return random.nextInt(6) + 1; }
         public boolean isPositive() { return random.nextDouble() < 0.7; }
     }
 
     public static class BoardGraph {
+        public static final int DEFAULT_LINK_COUNT = 5;
+
         public int size;
-        public Map<Integer, List<Integer>> adjacency;
-        private Random rand = new Random();
+        // Adjacency dalam format CSR: tetangga node u ada di targets[offsets[u] .. offsets[u+1]).
+        // Urutan tetangga: u+1 (jalur normal) dulu, lalu pasangan shortcut sesuai urutan extraLinks.
+        private int[] offsets;
+        private int[] targets;
+        // View read-only Map<Integer, List<Integer>> di atas CSR untuk pemanggil lama.
+        public final Map<Integer, List<Integer>> adjacency = new AdjacencyView();
+        private final SplittableRandom rand;
         private List<int[]> extraLinks = new ArrayList<>();
+        // Tabel next-hop menuju node 'size', dihitung sekali lewat BFS terbalik.
+        // null berarti harus dibangun ulang (mis. setelah link baru ditambahkan).
+        // Volatile: papan dibagi antar thread (BoardLibrary, GameServer) dan pembaca
+        // getNextOnShortestPath tidak mengambil lock, jadi tabel harus terpublikasi utuh.
+        private volatile int[] nextHop;
 
         public BoardGraph(int size) {
+            this(size, new SplittableRandom());
+        }
+
+        public BoardGraph(int size, SplittableRandom rand) {
+            this(size, Math.min(DEFAULT_LINK_COUNT, maxExtraLinks(size)), rand);
+        }
+
+        public BoardGraph(int size, int linkCount) {
+            this(size, linkCount, new SplittableRandom());
+        }
+
+        public BoardGraph(int size, int linkCount, SplittableRandom rand) {
+            if (size < MIN_BOARD_SIZE) {
+                throw new IllegalArgumentException("Ukuran papan minimal " + MIN_BOARD_SIZE + ", diberikan: " + size);
+            }
+            this.size = size;
+            this.rand = rand;
+            buildGraph();
+            addRandomLinksUndirected(linkCount);
+        }
+
+        /** Papan dengan shortcut yang sudah ditentukan (mis. dari {@link BoardFile}); tidak ada yang diacak. */
+        public BoardGraph(int size, List<int[]> links) {
+            if (size < MIN_BOARD_SIZE) {
+                throw new IllegalArgumentException("Ukuran papan minimal " + MIN_BOARD_SIZE + ", diberikan: " + size);
+            }
             this.size = size;
-            this.adjacency = new HashMap<>();
+            this.rand = new SplittableRandom();
+            for (int[] e : links) {
+                if (e[0] < 1 || e[0] > size || e[1] < 1 || e[1] > size || e[0] == e[1]) {
+                    throw new IllegalArgumentException("Shortcut tidak valid pada papan " + size + ": " + e[0] + "-" + e[1]);
+                }
+                extraLinks.add(new int[]{e[0], e[1]});
+            }
             buildGraph();
-            addRandomLinksUndirected(5);
         }
 
         private void buildGraph() {
-            for (int i = 1; i <= size; i++) {
-                List<Integer> neighbors = new ArrayList<>();
-                if (i < size) neighbors.add(i + 1);
-                adjacency.put(i, neighbors);
+            int[] degree = new int[size + 2];
+            for (int i = 1; i < size; i++) degree[i]++;
+            for (int[] e : extraLinks) {
+                degree[e[0]]++;
+                degree[e[1]]++;
             }
+
+            offsets = new int[size + 2];
+            for (int i = 1; i <= size; i++) offsets[i + 1] = offsets[i] + degree[i];
+            targets = new int[offsets[size + 1]];
+
+            int[] fill = Arrays.copyOf(offsets, size + 1);
+            for (int i = 1; i < size; i++) targets[fill[i]++] = i + 1;
+            for (int[] e : extraLinks) {
+                targets[fill[e[0]]++] = e[1];
+                targets[fill[e[1]]++] = e[0];
+            }
+            nextHop = null;
+        }
+
+        /**
+         * Jumlah maksimum link tambahan pada papan kosong berukuran 'size': setiap node
+         * paling banyak satu shortcut dan kedua ujungnya tidak bertetangga.
+         */
+        public static int maxExtraLinks(int size) {
+            if (size <= 2) return 0;
+            return size == 3 ? 1 : size / 2;
         }
 
+        /**
+         * Batas yang sama untuk node bebas pool[0..m). Node yang saling
+         * bertetangga membentuk lintasan; untuk m >= 4 selalu ada m/2 pasangan yang
+         * tidak bertetangga, untuk m = 3 selalu ada satu (node terkecil dan terbesar).
+         */
+        private static int maxExtraLinks(int[] pool, int m) {
+            if (m >= 3) return m == 3 ? 1 : m / 2;
+            return m == 2 && Math.abs(pool[0] - pool[1]) != 1 ? 1 : 0;
+        }
+
+        /**
+         * Menambah tepat k link tak-berarah antar node yang belum punya shortcut dan
+         * tidak bertetangga (|a - b| != 1). Node dipilih langsung dengan partial shuffle
+         * (tanpa rejection sampling), jadi biayanya O(k) setelah pool node disiapkan.
+         */
         private void addRandomLinksUndirected(int k) {
-            Set<String> usedPairs = new HashSet<>();
-            Set<Integer> usedNodes = new HashSet<>();
-            int attempts = 0;
-            int maxAttempts = k * 1000;
-
-            while (extraLinks.size() < k && attempts < maxAttempts) {
-                attempts++;
-                int a = rand.nextInt(size) + 1;
-                int b = rand.nextInt(size) + 1;
-                if (a == b) continue;
-                if (usedNodes.contains(a) || usedNodes.contains(b)) continue;
-                if (Math.abs(a - b) == 1) continue;
-
-                int u = Math.min(a, b);
-                int v = Math.max(a, b);
-                String key = u + "-" + v;
-                if (usedPairs.contains(key)) continue;
-
-                adjacency.computeIfAbsent(a, z -> new ArrayList<>());
-                adjacency.computeIfAbsent(b, z -> new ArrayList<>());
-                if (!adjacency.get(a).contains(b)) adjacency.get(a).add(b);
-                if (!adjacency.get(b).contains(a)) adjacency.get(b).add(a);
+            if (k <= 0) return;
+
+            // Bitset node yang sudah punya shortcut
+            long[] used = new long[(size >> 6) + 1];
+            for (int[] e : extraLinks) {
+                used[e[0] >> 6] |= 1L << e[0];
+                used[e[1] >> 6] |= 1L << e[1];
+            }
+
+            // pool[0..m) = node yang masih bebas, where[v] = index v di pool (-1 jika sudah dipakai)
+            int[] pool = new int[size];
+            int[] where = new int[size + 2];
+            Arrays.fill(where, -1);
+            int m = 0;
+            for (int v = 1; v <= size; v++) {
+                if ((used[v >> 6] & (1L << v)) != 0) continue;
+                where[v] = m;
+                pool[m++] = v;
+            }
+
+            int limit = maxExtraLinks(pool, m);
+            if (k > limit) {
+                throw new IllegalArgumentException("Tidak cukup node bebas untuk " + k
+                        + " link tambahan (maksimal " + limit + " pada papan " + size + ").");
+            }
+
+            // Pemilihan acak satu per satu tidak pernah buntu selama setelah pasangan terakhir
+            // masih tersisa minimal 2 node. Di atas batas itu, 2 pasangan terakhir dipilih
+            // dari semua pasangan yang valid agar tidak buntu (mis. 1-4 lalu 2-3 pada papan 4).
+            int exhaustive = k > (m - 2) / 2 ? Math.min(k, 2) : 0;
+            for (int j = 0; j < k - exhaustive; j++) {
+                // Node pertama: sembarang node bebas
+                int a = pool[rand.nextInt(m)];
+                m = removeFromPool(pool, where, a, m, 0);
+
+                // Tetangga a dipindah ke ujung pool agar tidak ikut terpilih
+                int excluded = 0;
+                if (a - 1 >= 1 && where[a - 1] >= 0) {
+                    swapInPool(pool, where, where[a - 1], m - 1 - excluded);
+                    excluded++;
+                }
+                if (a + 1 <= size && where[a + 1] >= 0) {
+                    swapInPool(pool, where, where[a + 1], m - 1 - excluded);
+                    excluded++;
+                }
+
+                int b = pool[rand.nextInt(m - excluded)];
+                m = removeFromPool(pool, where, b, m, excluded);
 
                 extraLinks.add(new int[]{a, b});
-                usedPairs.add(key);
-                usedNodes.add(a);
-                usedNodes.add(b);
             }
+            if (exhaustive > 0) addLastLinks(pool, m, exhaustive);
+
+            buildGraph();
+        }
+
+        /** Memilih acak salah satu dari semua cara membuat 'r' (1 atau 2) pasangan dari pool[0..m), m <= 5. */
+        private void addLastLinks(int[] pool, int m, int r) {
+            List<int[]> options = new ArrayList<>();
+            for (int a = 0; a < m; a++) {
+                for (int b = a + 1; b < m; b++) {
+                    if (Math.abs(pool[a] - pool[b]) == 1) continue;
+                    if (r == 1) {
+                        options.add(new int[]{pool[a], pool[b]});
+                        continue;
+                    }
+                    for (int c = a + 1; c < m; c++) {
+                        if (c == b) continue;
+                        for (int d = c + 1; d < m; d++) {
+                            if (d == b || Math.abs(pool[c] - pool[d]) == 1) continue;
+                            options.add(new int[]{pool[a], pool[b], pool[c], pool[d]});
+                        }
+                    }
+                }
+            }
+            int[] pick = options.get(rand.nextInt(options.size()));
+            for (int i = 0; i < pick.length; i += 2) extraLinks.add(new int[]{pick[i], pick[i + 1]});
+        }
+
+        /** Mengeluarkan node v dari pool tanpa mengganggu 'excluded' elemen terakhir. */
+        private static int removeFromPool(int[] pool, int[] where, int v, int m, int excluded) {
+            int lastCandidate = m - 1 - excluded;
+            swapInPool(pool, where, where[v], lastCandidate);
+            swapInPool(pool, where, lastCandidate, m - 1);
+            where[v] = -1;
+            return m - 1;
+        }
+
+        private static void swapInPool(int[] pool, int[] where, int i, int j) {
+            if (i == j) return;
+            int vi = pool[i];
+            int vj = pool[j];
+            pool[i] = vj;
+            pool[j] = vi;
+            where[vj] = i;
+            where[vi] = j;
+        }
+
+        // ================== AKSES TETANGGA (TANPA BOXING) ==================
+
+        public int degree(int u) {
+            if (u < 1 || u > size) return 0;
+            return offsets[u + 1] - offsets[u];
+        }
+
+        public int neighbor(int u, int i) {
+            return targets[offsets[u] + i];
+        }
+
+        public boolean hasEdge(int u, int v) {
+            if (u < 1 || u > size) return false;
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                if (targets[i] == v) return true;
+            }
+            return false;
         }
 
         public int getNextForward(int pos) {
-            List<Integer> neighbors = adjacency.get(pos);
-            if (neighbors == null || neighbors.isEmpty()) return pos;
+            if (degree(pos) == 0) return pos;
             int linear = pos + 1;
-            if (neighbors.contains(linear)) return linear;
-            return neighbors.get(0);
+            if (hasEdge(pos, linear)) return linear;
+            return targets[offsets[pos]];
         }
 
         public int getNextOnShortestPath(int pos) {
             if (pos >= size) return pos;
-            int target = size;
-            int[] prev = new int[size + 1];
-            Arrays.fill(prev, -1);
-
-            Queue<Integer> q = new ArrayDeque<>();
-            boolean[] vis = new boolean[size + 1];
-
-            q.offer(pos);
-            vis[pos] = true;
+            if (pos < 1) return Math.min(size, pos + 1);
+            int[] table = nextHop;
+            if (table == null) table = buildNextHopTable();
+            return table[pos];
+        }
 
-            while (!q.isEmpty()) {
-                int u = q.poll();
-                if (u == target) break;
+        /**
+         * Membangun tabel next-hop untuk semua node sekaligus. Jarak ke target dihitung
+         * dengan satu BFS terbalik dari 'size'; lalu tiap node memilih tetangga yang
+         * jaraknya satu lebih dekat, dengan u+1 diutamakan (sama seperti BFS lama).
+         */
+        public synchronized int[] buildNextHopTable() {
+            if (nextHop != null) return nextHop;
+
+            // Graf terbalik: v -> u untuk setiap sisi u -> v
+            int[] revOffsets = new int[size + 2];
+            for (int t : targets) revOffsets[t + 1]++;
+            for (int i = 1; i < revOffsets.length; i++) revOffsets[i] += revOffsets[i - 1];
+            int[] revTargets = new int[targets.length];
+            int[] fill = Arrays.copyOf(revOffsets, size + 1);
+            for (int u = 1; u <= size; u++) {
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    revTargets[fill[targets[i]]++] = u;
+                }
+            }
 
-                List<Integer> nbrs = adjacency.getOrDefault(u, Collections.emptyList());
-                nbrs = new ArrayList<>(nbrs);
-                if (u < size && adjacency.get(u).contains(u + 1)) {
-                    nbrs.remove((Integer) (u + 1));
-                    nbrs.add(0, u + 1);
+            int[] dist = new int[size + 1];
+            Arrays.fill(dist, -1);
+            int[] queue = new int[size];
+            int head = 0, tail = 0;
+            dist[size] = 0;
+            queue[tail++] = size;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int i = revOffsets[v]; i < revOffsets[v + 1]; i++) {
+                    int u = revTargets[i];
+                    if (dist[u] == -1) {
+                        dist[u] = dist[v] + 1;
+                        queue[tail++] = u;
+                    }
                 }
+            }
 
-                for (int v : nbrs) {
-                    if (v < 1 || v > size) continue;
-                    if (!vis[v]) {
-                        vis[v] = true;
-                        prev[v] = u;
-                        q.offer(v);
+            int[] table = new int[size + 1];
+            table[size] = size;
+            for (int u = 1; u < size; u++) {
+                int fallback = Math.min(size, u + 1);
+                if (dist[u] <= 0) {
+                    table[u] = fallback;
+                    continue;
+                }
+                int best = -1;
+                if (hasEdge(u, u + 1) && dist[u + 1] == dist[u] - 1) {
+                    best = u + 1;
+                } else {
+                    for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                        if (dist[targets[i]] == dist[u] - 1) {
+                            best = targets[i];
+                            break;
+                        }
                     }
                 }
+                table[u] = best == -1 ? fallback : best;
             }
 
-            if (prev[target] == -1) {
-                return Math.min(size, pos + 1);
+            nextHop = table;
+            return table;
+        }
+
+        /**
+         * Memasang tabel next-hop yang sudah dihitung sebelumnya (mis. dari file papan)
+         * sehingga BFS tidak perlu dijalankan. Tabel yang menunjuk ke node yang bukan
+         * tetangga ditolak.
+         */
+        public synchronized void setNextHopTable(int[] table) {
+            if (table.length != size + 1 || table[size] != size) {
+                throw new IllegalArgumentException("Tabel next-hop tidak cocok dengan papan " + size + " node.");
             }
+            for (int u = 1; u < size; u++) {
+                if (!hasEdge(u, table[u])) {
+                    throw new IllegalArgumentException("Tabel next-hop tidak cocok: " + u + " -> " + table[u] + " bukan tetangga.");
+                }
+            }
+            nextHop = table;
+        }
 
-            int cur = target;
-            Deque<Integer> path = new ArrayDeque<>();
-            while (cur != -1 && cur != pos) {
-                path.push(cur);
-                cur = prev[cur];
+        public List<Integer> neighbors(int u) {
+            if (u < 1 || u > size) return Collections.emptyList();
+            final int from = offsets[u];
+            final int count = offsets[u + 1] - from;
+            final int[] t = targets;
+            return new AbstractList<Integer>() {
+                @Override public Integer get(int i) {
+                    Objects.checkIndex(i, count);
+                    return t[from + i];
+                }
+                @Override public int size() { return count; }
+            };
+        }
+
+        private final class AdjacencyView extends AbstractMap<Integer, List<Integer>> {
+            @Override
+            public List<Integer> get(Object key) {
+                if (!(key instanceof Integer)) return null;
+                int u = (Integer) key;
+                if (u < 1 || u > BoardGraph.this.size) return null;
+                return neighbors(u);
+            }
+
+            @Override
+            public boolean containsKey(Object key) { return get(key) != null; }
+
+            @Override
+            public int size() { return BoardGraph.this.size; }
+
+            @Override
+            public Set<Entry<Integer, List<Integer>>> entrySet() {
+                return new AbstractSet<Entry<Integer, List<Integer>>>() {
+                    @Override
+                    public Iterator<Entry<Integer, List<Integer>>> iterator() {
+                        return new Iterator<Entry<Integer, List<Integer>>>() {
+                            private int u = 1;
+                            @Override public boolean hasNext() { return u <= BoardGraph.this.size; }
+                            @Override public Entry<Integer, List<Integer>> next() {
+                                if (!hasNext()) throw new NoSuchElementException();
+                                int key = u++;
+                                return new SimpleImmutableEntry<>(key, neighbors(key));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() { return BoardGraph.this.size; }
+                };
             }
-            if (path.isEmpty()) return Math.min(size, pos + 1);
-            return path.peek();
         }
 
         public List<int[]> getExtraLinks() {
-            return extraLinks;
+            return Collections.unmodifiableList(extraLinks);
         }
     }
     // =================================================================
 
+    /**
+     * Membaca ukuran papan dari argumen "--size=N". Jika tidak ada atau tidak valid,
+     * dipakai DEFAULT_BOARD_SIZE.
+     */
+    public static int parseBoardSize(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--size=")) continue;
+            try {
+                int n = Integer.parseInt(arg.substring("--size=".length()).trim());
+                if (n >= MIN_BOARD_SIZE) return n;
+            } catch (NumberFormatException ignored) {
+            }
+            System.err.println("Ukuran papan tidak valid: " + arg + ". Memakai " + DEFAULT_BOARD_SIZE + ".");
+        }
+        return DEFAULT_BOARD_SIZE;
+    }
+
+    /** Membaca argumen integer berbentuk "prefixN", mis. parseIntArg(args, "--players=", 2). */
+    public static int parseIntArg(String[] args, String prefix, int def) {
+        for (String arg : args) {
+            if (!arg.startsWith(prefix)) continue;
+            try {
+                return Integer.parseInt(arg.substring(prefix.length()).trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Argumen tidak valid: " + arg + ". Memakai " + def + ".");
+            }
+        }
+        return def;
+    }
+
+    /** Membaca argumen teks berbentuk "prefixNilai", mis. parseStringArg(args, "--history-file=", null). */
+    public static String parseStringArg(String[] args, String prefix, String def) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) return arg.substring(prefix.length()).trim();
+        }
+        return def;
+    }
+
+    /**
+     * Sumber acak untuk satu sesi: dari argumen "--seed=N" jika ada (game bisa diulang
+     * persis), selain itu seed acak. Papan, skor node dan dadu memakai split() dari sini.
+     */
+    public static SplittableRandom parseRandom(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--seed=")) continue;
+            try {
+                return new SplittableRandom(Long.parseLong(arg.substring("--seed=".length()).trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Seed tidak valid: " + arg + ". Memakai seed acak.");
+            }
+        }
+        return new SplittableRandom();
+    }
+
+    /**
+     * Posisi node default di sepanjang jalur anchor, dibagi rata untuk 'size' node.
+     * Index 0 tidak dipakai (node dimulai dari 1).
+     */
+    public static Point[] generateDefaultCenters(int size, int w, int h) {
+        int margin = 30;
+        int boardW = w - 2 * margin;
+        int boardH = h - 2 * margin;
+
+        double[][] anchors = {
+                {0.08, 0.85}, {0.30, 0.80}, {0.48, 0.75},
+                {0.70, 0.85}, {0.90, 0.65}, {0.80, 0.45},
+                {0.60, 0.35}, {0.35, 0.30}, {0.10, 0.40}, {0.20, 0.15},
+                {0.45, 0.10}, {0.70, 0.18}, {0.88, 0.35},
+        };
+
+        int nA = anchors.length;
+        double[] segLen = new double[nA - 1];
+        double total = 0;
+
+        java.awt.geom.Point2D.Double[] pts = new java.awt.geom.Point2D.Double[nA];
+        for (int i = 0; i < nA; i++) {
+            double x = margin + anchors[i][0] * boardW;
+            double y = margin + anchors[i][1] * boardH;
+            pts[i] = new java.awt.geom.Point2D.Double(x, y);
+        }
+
+        for (int i = 0; i < nA - 1; i++) {
+            double dx = pts[i + 1].x - pts[i].x;
+            double dy = pts[i + 1].y - pts[i].y;
+            segLen[i] = Math.hypot(dx, dy);
+            total += segLen[i];
+        }
+
+        Point[] centers = new Point[size + 1];
+        centers[0] = new Point(0, 0);
+
+        // Node berurutan, jadi segmen cukup dimajukan (tidak dicari ulang dari awal)
+        double acc = 0;
+        int seg = 0;
+        for (int idx = 0; idx < size; idx++) {
+            double dist = (total * idx) / (size - 1);
+            while (seg < segLen.length && acc + segLen[seg] < dist) {
+                acc += segLen[seg];
+                seg++;
+            }
+            double t;
+            int s = seg;
+            if (s >= segLen.length) {
+                s = segLen.length - 1;
+                t = 1.0;
+            } else {
+                t = (dist - acc) / segLen[s];
+            }
+            double x = pts[s].x + (pts[s + 1].x - pts[s].x) * t;
+            double y = pts[s].y + (pts[s + 1].y - pts[s].y) * t;
+            centers[idx + 1] = new Point((int) x, (int) y);
+        }
+        return centers;
+    }
+
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new BoardEditor().setVisible(true));
+        int size = parseBoardSize(args);
+        SplittableRandom rng = parseRandom(args);
+        SwingUtilities.invokeLater(() -> new BoardEditor(size, rng).setVisible(true));
     }
 
     public BoardEditor() {
+        this(DEFAULT_BOARD_SIZE, new SplittableRandom());
+    }
+
+    public BoardEditor(int boardSize, SplittableRandom rng) {
+        this.boardSize = boardSize;
         setTitle("Snake & Ladder - Board Editor (DEV MODE)");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
         // Mengunci ukuran jendela agar board tidak terdistorsi
         setResizable(false);
 
-        boardGraph = new BoardGraph(BOARD_SIZE);
+        boardGraph = new BoardGraph(boardSize, rng);
         editorPanel = new BoardEditorPanel();
 
         // PATH BACKGROUND PETA DIPERBAIKI: Langsung menunjuk ke 'Background Board/bgboard.png'
@@ -214,17 +601,22 @@ public class BoardEditor extends JFrame {
         JButton btnLoad = new JButton("Muat Posisi");
         btnLoad.addActionListener(e -> {
             if (loadNodePositions()) {
-                JOptionPane.showMessageDialog(this, "Posisi berhasil dimuat dari " + POSITION_FILE, "Sukses", JOptionPane.INFORMATION_MESSAGE);
+                JOptionPane.showMessageDialog(this, "Posisi berhasil dimuat dari " + BoardFile.DEFAULT_FILE, "Sukses", JOptionPane.INFORMATION_MESSAGE);
                 editorPanel.repaint();
             } else {
-                JOptionPane.showMessageDialog(this, "Gagal memuat posisi dari " + POSITION_FILE, "Error", JOptionPane.ERROR_MESSAGE);
+                JOptionPane.showMessageDialog(this, "Gagal memuat posisi dari " + BoardFile.DEFAULT_FILE, "Error", JOptionPane.ERROR_MESSAGE);
             }
         });
 
+        JButton btnExport = new JButton("Ekspor Teks");
+        btnExport.addActionListener(e -> exportText());
+
         controlPanel.add(btnSave);
         controlPanel.add(Box.createVerticalStrut(10));
         controlPanel.add(btnLoad);
         controlPanel.add(Box.createVerticalStrut(10));
+        controlPanel.add(btnExport);
+        controlPanel.add(Box.createVerticalStrut(10));
         controlPanel.add(new JLabel("Drag & Drop node untuk mengedit jalur."));
         controlPanel.add(new JLabel("Simpan setelah selesai."));
 
@@ -244,44 +636,48 @@ public class BoardEditor extends JFrame {
 
     // ================== FILE I/O ==================
 
+    private BoardFile currentBoardFile() {
+        Point[] centers = editorPanel.getCenters();
+        if (centers == null || centers.length <= 1) return null;
+        Point[] copy = new Point[centers.length];
+        for (int i = 0; i < centers.length; i++) copy[i] = new Point(centers[i]);
+        return BoardFile.of(copy, boardGraph, loadedNodeScores);
+    }
+
     private void saveNodePositions() {
-        if (editorPanel.getCenters() == null || editorPanel.getCenters().length <= 1) return;
+        BoardFile board = currentBoardFile();
+        if (board == null) return;
 
-        try (PrintWriter writer = new PrintWriter(new FileWriter(POSITION_FILE))) {
-            for (int i = 1; i <= BOARD_SIZE; i++) {
-                Point p = editorPanel.getCenters()[i];
-                writer.println(p.x + "," + p.y);
-            }
-            JOptionPane.showMessageDialog(this, "Posisi node berhasil disimpan ke " + POSITION_FILE, "Sukses", JOptionPane.INFORMATION_MESSAGE);
+        try {
+            board.write(java.nio.file.Paths.get(BoardFile.DEFAULT_FILE));
+            JOptionPane.showMessageDialog(this, "Posisi node berhasil disimpan ke " + BoardFile.DEFAULT_FILE, "Sukses", JOptionPane.INFORMATION_MESSAGE);
         } catch (IOException e) {
             JOptionPane.showMessageDialog(this, "Gagal menyimpan posisi: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
-    private boolean loadNodePositions() {
-        File file = new File(POSITION_FILE);
-        if (!file.exists()) return false;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            Point[] loadedCenters = new Point[BOARD_SIZE + 1];
-            loadedCenters[0] = new Point(0, 0);
-            String line;
-            int i = 1;
-            while ((line = reader.readLine()) != null && i <= BOARD_SIZE) {
-                String[] parts = line.split(",");
-                if (parts.length == 2) {
-                    loadedCenters[i] = new Point(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
-                    i++;
-                }
-            }
-            if (i > BOARD_SIZE) {
-                editorPanel.setCenters(loadedCenters);
-                return true;
-            }
-        } catch (Exception e) {
-            return false;
+    private void exportText() {
+        BoardFile board = currentBoardFile();
+        if (board == null) return;
+
+        try {
+            board.exportText(java.nio.file.Paths.get(BoardFile.TEXT_FILE));
+            JOptionPane.showMessageDialog(this, "Papan berhasil diekspor ke " + BoardFile.TEXT_FILE, "Sukses", JOptionPane.INFORMATION_MESSAGE);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Gagal mengekspor papan: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
-        return false;
+    }
+
+    /** Memuat board.slb, atau node_positions.txt jika file biner belum ada. */
+    private boolean loadNodePositions() {
+        BoardFile board = BoardFile.load(BoardFile.DEFAULT_FILE, BoardFile.TEXT_FILE);
+        // File untuk ukuran papan lain tidak dipakai
+        if (board == null || board.size != boardSize) return false;
+        editorPanel.setCenters(board.getCenters());
+        loadedNodeScores = board.getNodeScores();
+        // Shortcut tersimpan dipakai; file lama tanpa shortcut tetap memakai shortcut acak editor
+        if (board.hasLinks()) boardGraph = board.toBoardGraph();
+        return true;
     }
 
     // ================== BOARD EDITOR PANEL ==================
@@ -336,7 +732,7 @@ public class BoardEditor extends JFrame {
 
         private int findNode(Point p) {
             if (centers == null) return -1;
-            for (int i = 1; i <= BOARD_SIZE; i++) {
+            for (int i = 1; i <= boardSize; i++) {
                 Point c = centers[i];
                 if (c.distance(p) <= nodeR + 5) {
                     return i;
@@ -346,57 +742,7 @@ public class BoardEditor extends JFrame {
         }
 
         public void generateDefaultPoints(int w, int h) {
-            int margin = 30;
-            int boardW = w - 2 * margin;
-            int boardH = h - 2 * margin;
-
-            double[][] anchors = {
-                    {0.08, 0.85}, {0.30, 0.80}, {0.48, 0.75},
-                    {0.70, 0.85}, {0.90, 0.65}, {0.80, 0.45},
-                    {0.60, 0.35}, {0.35, 0.30}, {0.10, 0.40}, {0.20, 0.15},
-                    {0.45, 0.10}, {0.70, 0.18}, {0.88, 0.35},
-            };
-
-            int nA = anchors.length;
-            double[] segLen = new double[nA - 1];
-            double total = 0;
-
-            java.awt.geom.Point2D.Double[] pts = new java.awt.geom.Point2D.Double[nA];
-            for (int i = 0; i < nA; i++) {
-                double x = margin + anchors[i][0] * boardW;
-                double y = margin + anchors[i][1] * boardH;
-                pts[i] = new java.awt.geom.Point2D.Double(x, y);
-            }
-
-            for (int i = 0; i < nA - 1; i++) {
-                double dx = pts[i + 1].x - pts[i].x;
-                double dy = pts[i + 1].y - pts[i].y;
-                segLen[i] = Math.hypot(dx, dy);
-                total += segLen[i];
-            }
-
-            centers = new Point[BOARD_SIZE + 1];
-            centers[0] = new Point(0, 0);
-
-            for (int idx = 0; idx < BOARD_SIZE; idx++) {
-                double dist = (total * idx) / (BOARD_SIZE - 1);
-                double acc = 0;
-                int seg = 0;
-                while (seg < segLen.length && acc + segLen[seg] < dist) {
-                    acc += segLen[seg];
-                    seg++;
-                }
-                double t;
-                if (seg >= segLen.length) {
-                    seg = segLen.length - 1;
-                    t = 1.0;
-                } else {
-                    t = (dist - acc) / segLen[seg];
-                }
-                double x = pts[seg].x + (pts[seg + 1].x - pts[seg].x) * t;
-                double y = pts[seg].y + (pts[seg + 1].y - pts[seg].y) * t;
-                centers[idx + 1] = new Point((int) x, (int) y);
-            }
+            centers = generateDefaultCenters(boardSize, w, h);
         }
 
         @Override
@@ -423,7 +769,7 @@ public class BoardEditor extends JFrame {
             g2.setColor(new Color(245, 245, 245, 220));
             g2.setStroke(new BasicStroke(3f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND,
                     1f, new float[]{8f, 10f}, 0f));
-            for (int i = 1; i < BOARD_SIZE; i++) {
+            for (int i = 1; i < boardSize; i++) {
                 Point a = centers[i];
                 Point b = centers[i + 1];
                 g2.drawLine(a.x, a.y, b.x, b.y);
@@ -442,7 +788,7 @@ public class BoardEditor extends JFrame {
 
             // Gambar node (seragam dengan Game Mode)
             Font numFont = new Font("Monospaced", Font.BOLD, 11);
-            for (int i = 1; i <= BOARD_SIZE; i++) {
+            for (int i = 1; i <= boardSize; i++) {
                 Point c = centers[i];
                 int nx = c.x;
                 int ny = c.y;
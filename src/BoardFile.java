@@ -0,0 +1,389 @@
+import java.awt.Point;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BoardFile - Format biner papan (posisi node, shortcut, skor node, tabel routing).
+ *
+ * Isi file dibaca lewat MappedByteBuffer, jadi startup tidak mem-parse teks baris
+ * per baris. Layout (big-endian):
+ *
+ *   int   MAGIC ("SLBD")
+ *   short VERSION
+ *   short jumlah section
+ *   int   ukuran papan
+ *   lalu tiap section: int tag, int panjang byte, payload
+ *
+ * Section yang tidak dikenal dilewati, jadi section baru bisa ditambahkan tanpa
+ * memecah pembaca lama. Shortcut disimpan agar editor, game dan simulasi memakai
+ * papan yang sama; tabel next-hop ikut disimpan agar BFS tidak diulang saat start.
+ *
+ * Format teks lama (baris "x,y") tetap bisa diimpor dan diekspor; shortcut dan skor
+ * ikut ditulis sebagai baris "link a b" / "score n s" yang diabaikan oleh pembaca
+ * teks lama.
+ *
+ * Contoh: java BoardFile --import=node_positions.txt --out=board.slb
+ *         java BoardFile --export=node_positions.txt --in=board.slb
+ */
+public class BoardFile {
+
+    public static final String DEFAULT_FILE = "board.slb";
+    public static final String TEXT_FILE = "node_positions.txt";
+
+    static final int MAGIC = 0x534C4244; // "SLBD"
+    static final short VERSION = 1;
+
+    static final int TAG_CENTERS = 1;  // size * (int x, int y), node 1..size
+    static final int TAG_LINKS = 2;    // int n, lalu n * (int a, int b)
+    static final int TAG_SCORES = 3;   // size byte, node 1..size
+    static final int TAG_NEXT_HOP = 4; // size int, node 1..size
+
+    private static final int HEADER_BYTES = 4 + 2 + 2 + 4;
+    private static final int SECTION_HEADER_BYTES = 8;
+
+    public final int size;
+    // Index 0 tidak dipakai, sama seperti BoardPanel
+    private final Point[] centers;
+    // null = file tidak menyimpan shortcut (mis. teks lama), shortcut diacak seperti biasa
+    private final List<int[]> links;
+    // null = skor node diacak oleh engine seperti biasa
+    private final byte[] nodeScores;
+    // null = tabel dihitung ulang dari graf
+    private final int[] nextHop;
+
+    public BoardFile(Point[] centers, List<int[]> links, byte[] nodeScores) {
+        this(centers, links, nodeScores, null);
+    }
+
+    public BoardFile(Point[] centers, List<int[]> links, byte[] nodeScores, int[] nextHop) {
+        if (centers == null || centers.length - 1 < BoardEditor.MIN_BOARD_SIZE) {
+            throw new IllegalArgumentException("Papan minimal " + BoardEditor.MIN_BOARD_SIZE + " node.");
+        }
+        this.size = centers.length - 1;
+        if (nodeScores != null && nodeScores.length != size + 1) {
+            throw new IllegalArgumentException("Jumlah skor node " + (nodeScores.length - 1) + " tidak cocok dengan ukuran papan " + size);
+        }
+        if (nextHop != null && (links == null || nextHop.length != size + 1)) {
+            throw new IllegalArgumentException("Tabel next-hop butuh shortcut dan " + (size + 1) + " entri.");
+        }
+        if (links != null) {
+            for (int[] e : links) {
+                if (e[0] < 1 || e[0] > size || e[1] < 1 || e[1] > size || e[0] == e[1]) {
+                    throw new IllegalArgumentException("Shortcut tidak valid: " + e[0] + "-" + e[1]);
+                }
+            }
+        }
+        this.centers = centers;
+        this.links = links;
+        this.nodeScores = nodeScores;
+        this.nextHop = nextHop;
+    }
+
+    /** Menyimpan papan game lengkap dengan shortcut dan tabel next-hop-nya. */
+    public static BoardFile of(Point[] centers, BoardEditor.BoardGraph graph, byte[] nodeScores) {
+        return new BoardFile(centers, new ArrayList<>(graph.getExtraLinks()), nodeScores, graph.buildNextHopTable());
+    }
+
+    public Point[] getCenters() { return centers; }
+    public boolean hasLinks() { return links != null; }
+    public List<int[]> getLinks() { return links; }
+    public boolean hasNodeScores() { return nodeScores != null; }
+    public byte[] getNodeScores() { return nodeScores; }
+    public boolean hasNextHop() { return nextHop != null; }
+    public int[] getNextHop() { return nextHop; }
+
+    /**
+     * Membangun BoardGraph dari shortcut yang tersimpan, dengan tabel next-hop dari
+     * file jika ada. Tabel yang tidak cocok dibuang dan dihitung ulang saat dipakai.
+     */
+    public BoardEditor.BoardGraph toBoardGraph() {
+        if (links == null) throw new IllegalStateException("File papan tidak menyimpan shortcut.");
+        BoardEditor.BoardGraph graph = new BoardEditor.BoardGraph(size, links);
+        if (nextHop != null) {
+            try {
+                graph.setNextHopTable(nextHop);
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage() + " Tabel dihitung ulang.");
+            }
+        }
+        return graph;
+    }
+
+    // ================== BINER ==================
+
+    public static BoardFile read(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            return decode(buf, path.toString());
+        }
+    }
+
+    /** Hanya membaca ukuran papan dari header, tanpa memetakan atau mem-parse isi file. */
+    public static int readSize(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES);
+            while (buf.hasRemaining() && ch.read(buf) >= 0) {
+                // baca sampai header lengkap atau file habis
+            }
+            buf.flip();
+            if (buf.remaining() < HEADER_BYTES || buf.getInt() != MAGIC) throw new IOException(path + " bukan file papan.");
+            buf.getShort();
+            buf.getShort();
+            int size = buf.getInt();
+            if (size < BoardEditor.MIN_BOARD_SIZE) throw new IOException(path + ": ukuran papan tidak valid: " + size);
+            return size;
+        }
+    }
+
+    /**
+     * Semua panjang dari header dan section dicocokkan dengan sisa data sebelum
+     * dialokasikan, jadi file rusak menjadi IOException, bukan OutOfMemoryError.
+     */
+    static BoardFile decode(ByteBuffer buf, String source) throws IOException {
+        try {
+            if (buf.remaining() < HEADER_BYTES || buf.getInt() != MAGIC) {
+                throw new IOException(source + " bukan file papan.");
+            }
+            short version = buf.getShort();
+            if (version > VERSION) {
+                throw new IOException(source + " versi " + version + " lebih baru dari yang didukung (" + VERSION + ").");
+            }
+            int sections = buf.getShort();
+            int size = buf.getInt();
+            // Section posisi node wajib ada dan butuh size * 8 byte
+            if (size < BoardEditor.MIN_BOARD_SIZE || size * 8L > buf.remaining()) {
+                throw new IOException(source + ": ukuran papan tidak valid: " + size);
+            }
+
+            Point[] centers = null;
+            List<int[]> links = null;
+            byte[] scores = null;
+            int[] nextHop = null;
+
+            for (int s = 0; s < sections; s++) {
+                int tag = buf.getInt();
+                int len = buf.getInt();
+                if (len < 0 || len > buf.remaining()) {
+                    throw new IOException(source + ": panjang section " + tag + " tidak valid: " + len);
+                }
+                int end = buf.position() + len;
+                switch (tag) {
+                    case TAG_CENTERS:
+                        expectLength(source, tag, len, size * 8L);
+                        centers = new Point[size + 1];
+                        centers[0] = new Point(0, 0);
+                        for (int i = 1; i <= size; i++) centers[i] = new Point(buf.getInt(), buf.getInt());
+                        break;
+                    case TAG_LINKS:
+                        if (len < 4) expectLength(source, tag, len, 4);
+                        int n = buf.getInt();
+                        expectLength(source, tag, len, 4 + n * 8L);
+                        links = new ArrayList<>(n);
+                        for (int i = 0; i < n; i++) links.add(new int[]{buf.getInt(), buf.getInt()});
+                        break;
+                    case TAG_SCORES:
+                        expectLength(source, tag, len, size);
+                        scores = new byte[size + 1];
+                        buf.get(scores, 1, size);
+                        for (int i = 1; i <= size; i++) {
+                            if (scores[i] < 0 || scores[i] > GameState.MAX_NODE_SCORE) {
+                                throw new IOException(source + ": skor node tidak valid: " + i + " " + scores[i]);
+                            }
+                        }
+                        break;
+                    case TAG_NEXT_HOP:
+                        expectLength(source, tag, len, size * 4L);
+                        nextHop = new int[size + 1];
+                        buf.asIntBuffer().get(nextHop, 1, size);
+                        break;
+                    default:
+                        break;
+                }
+                buf.position(end);
+            }
+            if (centers == null) throw new IOException(source + " tidak berisi posisi node.");
+            return new BoardFile(centers, links, scores, nextHop);
+        } catch (RuntimeException e) {
+            // BufferUnderflow, posisi section di luar file, atau data tidak valid
+            throw new IOException(source + " rusak: " + e, e);
+        }
+    }
+
+    private static void expectLength(String source, int tag, int len, long expected) throws IOException {
+        if (len != expected) {
+            throw new IOException(source + ": section " + tag + " berisi " + len + " byte, seharusnya " + expected);
+        }
+    }
+
+    /** Menulis ke file sementara lalu memindahkannya, jadi file lama tidak pernah setengah tertulis. */
+    public void write(Path path) throws IOException {
+        ByteBuffer buf = encode();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    ByteBuffer encode() {
+        int sections = 1 + (links != null ? 1 : 0) + (nodeScores != null ? 1 : 0) + (nextHop != null ? 1 : 0);
+        int bytes = HEADER_BYTES
+                + SECTION_HEADER_BYTES + size * 8
+                + (links != null ? SECTION_HEADER_BYTES + 4 + links.size() * 8 : 0)
+                + (nodeScores != null ? SECTION_HEADER_BYTES + size : 0)
+                + (nextHop != null ? SECTION_HEADER_BYTES + size * 4 : 0);
+
+        ByteBuffer buf = ByteBuffer.allocate(bytes);
+        buf.putInt(MAGIC).putShort(VERSION).putShort((short) sections).putInt(size);
+
+        buf.putInt(TAG_CENTERS).putInt(size * 8);
+        for (int i = 1; i <= size; i++) buf.putInt(centers[i].x).putInt(centers[i].y);
+
+        if (links != null) {
+            buf.putInt(TAG_LINKS).putInt(4 + links.size() * 8).putInt(links.size());
+            for (int[] e : links) buf.putInt(e[0]).putInt(e[1]);
+        }
+
+        if (nodeScores != null) {
+            buf.putInt(TAG_SCORES).putInt(size);
+            buf.put(nodeScores, 1, size);
+        }
+
+        if (nextHop != null) {
+            buf.putInt(TAG_NEXT_HOP).putInt(size * 4);
+            for (int i = 1; i <= size; i++) buf.putInt(nextHop[i]);
+        }
+        buf.flip();
+        return buf;
+    }
+
+    // ================== TEKS ==================
+
+    /**
+     * Membaca format teks: baris "x,y" per node, opsional "link a b" dan "score n s".
+     * Tabel next-hop tidak ada di format teks; dihitung ulang saat dipakai.
+     */
+    public static BoardFile importText(Path path) throws IOException {
+        List<Point> pts = new ArrayList<>();
+        List<int[]> links = new ArrayList<>();
+        List<int[]> scoreLines = new ArrayList<>();
+        pts.add(new Point(0, 0));
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                try {
+                    if (line.startsWith("link ")) {
+                        String[] p = line.substring(5).trim().split("\\s+");
+                        links.add(new int[]{Integer.parseInt(p[0]), Integer.parseInt(p[1])});
+                    } else if (line.startsWith("score ")) {
+                        String[] p = line.substring(6).trim().split("\\s+");
+                        scoreLines.add(new int[]{Integer.parseInt(p[0]), Integer.parseInt(p[1])});
+                    } else {
+                        String[] p = line.split(",");
+                        if (p.length != 2) continue;
+                        pts.add(new Point(Integer.parseInt(p[0].trim()), Integer.parseInt(p[1].trim())));
+                    }
+                } catch (RuntimeException e) {
+                    throw new IOException(path + " baris " + lineNo + " tidak valid: " + line);
+                }
+            }
+        }
+
+        Point[] centers = pts.toArray(new Point[0]);
+        byte[] scores = null;
+        if (!scoreLines.isEmpty()) {
+            scores = new byte[centers.length];
+            for (int[] s : scoreLines) {
+                if (s[0] < 1 || s[0] >= centers.length || s[1] < 0 || s[1] > GameState.MAX_NODE_SCORE) {
+                    throw new IOException(path + ": skor node tidak valid: " + s[0] + " " + s[1]);
+                }
+                scores[s[0]] = (byte) s[1];
+            }
+        }
+        try {
+            // Tanpa baris "link", shortcut dianggap tidak disimpan
+            return new BoardFile(centers, links.isEmpty() ? null : links, scores);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(path + ": " + e.getMessage());
+        }
+    }
+
+    public void exportText(Path path) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int i = 1; i <= size; i++) {
+                w.write(centers[i].x + "," + centers[i].y);
+                w.newLine();
+            }
+            if (links != null) {
+                for (int[] e : links) {
+                    w.write("link " + e[0] + " " + e[1]);
+                    w.newLine();
+                }
+            }
+            if (nodeScores != null) {
+                for (int i = 1; i <= size; i++) {
+                    w.write("score " + i + " " + nodeScores[i]);
+                    w.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Memuat papan dari file biner, atau dari file teks jika file biner belum ada.
+     * Mengembalikan null jika keduanya tidak ada atau gagal dibaca.
+     */
+    public static BoardFile load(String binaryPath, String textPath) {
+        Path bin = Paths.get(binaryPath);
+        try {
+            if (Files.exists(bin)) return read(bin);
+        } catch (IOException e) {
+            System.err.println("Gagal membaca " + binaryPath + ": " + e.getMessage());
+        }
+        Path txt = Paths.get(textPath);
+        try {
+            if (Files.exists(txt)) return importText(txt);
+        } catch (IOException e) {
+            System.err.println("Gagal membaca " + textPath + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    // ================== MAIN ==================
+
+    public static void main(String[] args) throws IOException {
+        String importPath = BoardEditor.parseStringArg(args, "--import=", null);
+        String exportPath = BoardEditor.parseStringArg(args, "--export=", null);
+        if (importPath != null) {
+            String out = BoardEditor.parseStringArg(args, "--out=", DEFAULT_FILE);
+            BoardFile board = importText(Paths.get(importPath));
+            board.write(Paths.get(out));
+            System.out.println(importPath + " -> " + out + " (" + board.size + " node, " + (board.links == null ? 0 : board.links.size()) + " shortcut)");
+        } else if (exportPath != null) {
+            String in = BoardEditor.parseStringArg(args, "--in=", DEFAULT_FILE);
+            BoardFile board = read(Paths.get(in));
+            board.exportText(Paths.get(exportPath));
+            System.out.println(in + " -> " + exportPath + " (" + board.size + " node, " + (board.links == null ? 0 : board.links.size()) + " shortcut)");
+        } else {
+            System.err.println("Pakai --import=<teks> [--out=<biner>] atau --export=<teks> [--in=<biner>]");
+        }
+    }
+}
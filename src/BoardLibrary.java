@@ -0,0 +1,181 @@
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * BoardLibrary - Kumpulan papan (*.slb) dalam satu folder dengan cache LRU.
+ *
+ * Papan baru dibaca dari disk saat pertama kali diminta. Hasil parse (BoardGraph,
+ * tabel next-hop dan posisi node) disimpan di LinkedHashMap berurutan akses;
+ * entri yang paling lama tidak dipakai dibuang jika cache penuh. Selama sebuah
+ * papan masih di cache, berpindah ke papan itu tidak menyentuh disk lagi.
+ * File tanpa section LINKS mendapat shortcut acak yang seed-nya diturunkan dari id
+ * papan, jadi papan yang keluar dari cache dibaca ulang dengan shortcut yang sama.
+ * Semua method aman dipanggil dari beberapa thread.
+ */
+public class BoardLibrary {
+
+    public static final int DEFAULT_CAPACITY = 8;
+    public static final String EXTENSION = ".slb";
+
+    /** Papan yang sudah di-parse dan siap dipakai. Isinya tidak boleh diubah pemanggil. */
+    public static final class Entry {
+        public final String id;
+        public final BoardEditor.BoardGraph graph;
+        public final int[] nextHop;
+        public final Point[] centers;
+        // null = skor node diacak oleh engine
+        public final byte[] nodeScores;
+
+        Entry(String id, BoardEditor.BoardGraph graph, Point[] centers, byte[] nodeScores) {
+            this.id = id;
+            this.graph = graph;
+            this.nextHop = graph.buildNextHopTable();
+            this.centers = centers;
+            this.nodeScores = nodeScores;
+        }
+
+        public int size() { return graph.size; }
+    }
+
+    private final Path directory;
+    private final int capacity;
+    private final LinkedHashMap<String, Entry> cache;
+    private List<String> ids;
+    // Ukuran papan yang pernah dibaca, agar papan berukuran lain tidak dibaca ulang saat dicari
+    private final Map<String, Integer> knownSizes = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BoardLibrary(Path directory) {
+        this(directory, DEFAULT_CAPACITY);
+    }
+
+    public BoardLibrary(Path directory, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Kapasitas cache minimal 1, diberikan: " + capacity);
+        this.directory = directory;
+        this.capacity = capacity;
+        this.cache = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= BoardLibrary.this.capacity) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /** Nama papan (nama file tanpa .slb) di folder, terurut. Daftar dibaca sekali lalu disimpan. */
+    public synchronized List<String> list() throws IOException {
+        if (ids == null) ids = scan();
+        return ids;
+    }
+
+    /** Membaca ulang isi folder, mis. setelah papan baru disimpan. Cache tidak dikosongkan. */
+    public synchronized void rescan() throws IOException {
+        ids = scan();
+    }
+
+    private List<String> scan() throws IOException {
+        List<String> found = new ArrayList<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path p : dir) {
+                String name = p.getFileName().toString();
+                found.add(name.substring(0, name.length() - EXTENSION.length()));
+            }
+        }
+        Collections.sort(found);
+        return Collections.unmodifiableList(found);
+    }
+
+    /** Papan dengan id tertentu, dari cache jika ada. */
+    public synchronized Entry get(String id) throws IOException {
+        Entry e = cache.get(id);
+        if (e != null) {
+            hits++;
+            return e;
+        }
+        misses++;
+        e = load(id);
+        knownSizes.put(id, e.size());
+        cache.put(id, e);
+        return e;
+    }
+
+    private Entry load(String id) throws IOException {
+        BoardFile file = BoardFile.read(directory.resolve(id + EXTENSION));
+        BoardEditor.BoardGraph graph = file.hasLinks()
+                ? file.toBoardGraph()
+                : new BoardEditor.BoardGraph(file.size, new SplittableRandom(seedOf(id)));
+        return new Entry(id, graph, file.getCenters(), file.getNodeScores());
+    }
+
+    /** Seed stabil dari id papan (FNV-1a 64 bit), sama di setiap JVM. */
+    static long seedOf(String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * Papan berikutnya setelah 'currentId' (berputar) yang berukuran 'size'.
+     * Mengembalikan null jika tidak ada papan lain dengan ukuran itu.
+     */
+    public synchronized Entry next(String currentId, int size) throws IOException {
+        List<String> all = list();
+        if (all.isEmpty()) return null;
+        int start = currentId == null ? -1 : all.indexOf(currentId);
+        for (int k = 1; k <= all.size(); k++) {
+            String id = all.get(Math.floorMod(start + k, all.size()));
+            if (id.equals(currentId)) continue;
+            Entry e;
+            try {
+                // Ukuran papan yang belum dikenal dibaca dari header saja, agar papan
+                // berukuran lain tidak masuk cache dan menggeser papan yang dipakai
+                Integer known = knownSizes.get(id);
+                if (known == null) {
+                    known = BoardFile.readSize(directory.resolve(id + EXTENSION));
+                    knownSizes.put(id, known);
+                }
+                if (known != size) continue;
+                e = get(id);
+            } catch (IOException ex) {
+                System.err.println("Papan " + id + " dilewati: " + ex.getMessage());
+                continue;
+            }
+            if (e.size() == size) return e;
+        }
+        return null;
+    }
+
+    public int getCapacity() { return capacity; }
+    public synchronized int cachedCount() { return cache.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+
+    public synchronized double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("BoardLibrary[%s] cache %d/%d | hit %d | miss %d | evict %d | hit rate %.1f%%",
+                directory, cache.size(), capacity, hits, misses, evictions, hitRate() * 100);
+    }
+}
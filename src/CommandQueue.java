@@ -0,0 +1,114 @@
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * CommandQueue - Antrean aksi (lempar dadu, reset) per sesi, lock-free.
+ *
+ * Banyak sumber input (tombol, socket, bot) boleh memanggil {@link #offer} dari
+ * thread mana pun; semua aksi diterapkan satu per satu, sesuai urutan masuk, oleh
+ * satu consumer yang dijalankan di executor milik sesi (EDT untuk UI, antrean
+ * serial sesi untuk server). Engine tidak pernah disentuh dua thread sekaligus.
+ *
+ * Setiap aksi membawa nomor urut engine yang dilihat pengirim
+ * ({@link GameEngine#getSequence()}). Nomor itu naik setiap giliran selesai dan
+ * setiap reset, jadi klik ganda atau aksi yang dikirim sebelum giliran lain
+ * selesai ditolak sebagai STALE, bukan dijalankan dua kali.
+ */
+public class CommandQueue {
+
+    /** Nomor urut yang tidak dicek (aksi selalu berlaku untuk state saat ini). */
+    public static final long ANY_SEQUENCE = -1;
+
+    public enum Type { ROLL, RESET }
+
+    public enum Status { APPLIED, STALE, BUSY, GAME_OVER }
+
+    public static final class Command {
+        public final Type type;
+        public final long expectedSequence;
+        // Dipanggil di thread consumer setelah aksi diterapkan atau ditolak; boleh null
+        final Consumer<Status> onDone;
+
+        public Command(Type type, long expectedSequence, Consumer<Status> onDone) {
+            this.type = type;
+            this.expectedSequence = expectedSequence;
+            this.onDone = onDone;
+        }
+    }
+
+    /** Menerapkan satu aksi ke sesi. Dipanggil hanya dari consumer. */
+    public interface Handler {
+        Status apply(Command command);
+    }
+
+    private final Queue<Command> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Executor consumer;
+    private final Handler handler;
+
+    public CommandQueue(Executor consumer, Handler handler) {
+        this.consumer = consumer;
+        this.handler = handler;
+    }
+
+    /**
+     * Alasan aksi ditolak untuk state engine saat ini, atau null jika aksi boleh
+     * dijalankan. Handler memakai ini sebelum menerapkan aksi.
+     */
+    public static Status reject(GameEngine engine, Command c) {
+        if (c.expectedSequence != ANY_SEQUENCE && c.expectedSequence != engine.getSequence()) return Status.STALE;
+        if (c.type == Type.ROLL) {
+            if (engine.isGameOver()) return Status.GAME_OVER;
+            if (engine.isTurnActive()) return Status.BUSY;
+        }
+        return null;
+    }
+
+    public void offer(Command command) {
+        pending.add(command);
+        if (draining.compareAndSet(false, true)) {
+            try {
+                consumer.execute(this::drain);
+            } catch (RuntimeException e) {
+                // Executor menolak (mis. sudah shutdown): jangan tinggalkan flag terkunci
+                draining.set(false);
+                throw e;
+            }
+        }
+    }
+
+    public void offer(Type type, long expectedSequence) {
+        offer(new Command(type, expectedSequence, null));
+    }
+
+    public boolean isEmpty() { return pending.isEmpty(); }
+
+    private void drain() {
+        boolean rearmed = false;
+        try {
+            while (true) {
+                Command c;
+                while ((c = pending.poll()) != null) {
+                    // Satu aksi yang gagal tidak boleh menghentikan antrean sesi
+                    try {
+                        Status st = handler.apply(c);
+                        if (c.onDone != null) c.onDone.accept(st);
+                    } catch (RuntimeException e) {
+                        System.err.println("Aksi " + c.type + " gagal: " + e);
+                    }
+                }
+                draining.set(false);
+                rearmed = true;
+                // Aksi yang masuk di antara poll terakhir dan set(false) tidak boleh tertinggal
+                if (pending.isEmpty() || !draining.compareAndSet(false, true)) return;
+                rearmed = false;
+            }
+        } finally {
+            // Error (bukan RuntimeException) tetap keluar, tapi offer berikutnya memulai drain baru
+            if (!rearmed) draining.set(false);
+        }
+    }
+}
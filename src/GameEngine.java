@@ -0,0 +1,443 @@
+import java.util.*;
+import java.util.List;
+
+/**
+ * GameEngine - Aturan permainan Snake & Ladder tanpa Swing.
+ *
+ * Menangani resolusi giliran, PRIME BOOST, bonus turn bintang, klaim skor node
+ * dan pengecekan pemenang. SnakeLadder hanya menggambar state engine dan
+ * mendengarkan event lewat {@link Listener}; simulasi bisa memanggil
+ * {@link #playTurn()} langsung tanpa animasi.
+ */
+public class GameEngine {
+
+    // ================== LISTENER & HASIL GILIRAN ==================
+
+    public interface Listener {
+        default void onStep(BoardEditor.Player player, int from, int to) {}
+        default void onTurnFinished(TurnResult result) {}
+        default void onReset() {}
+    }
+
+    /** Ringkasan satu giliran. Objek yang sama dipakai ulang tiap giliran. */
+    public static class TurnResult {
+        public BoardEditor.Player player;
+        public int seat;
+        public int diceNumber;
+        public boolean positive;
+        public boolean primeBoost;
+        public int startPos;
+        public int endPos;
+        public int gained;
+        public int totalScore;
+        public boolean bonusTurn;
+        public boolean winner;
+        public BoardEditor.Player nextPlayer;
+        public int nextSeat;
+    }
+
+    // ================== DATA GAME ==================
+    private BoardEditor.BoardGraph board;
+    private final BoardEditor.Dice dice;
+    private final List<BoardEditor.Player> players;
+    private BoardEditor.Player currentPlayer;
+
+    // --------- SKOR NODE & PLAYER (index kursi = urutan di players) -----------
+    private final GameState state;
+    // Setiap game punya seed sendiri dari seedSource; skor node game itu hanya bergantung
+    // pada seed tersebut, jadi satu game bisa diputar ulang tanpa game sebelumnya
+    private final SplittableRandom seedSource;
+    private SplittableRandom scoreRandom;
+    private long gameSeed;
+    // Skor node tetap dari file papan; null = diacak tiap reset
+    private byte[] fixedNodeScores;
+    private final Leaderboard leaderboard;
+
+    // --------- STATE GILIRAN BERJALAN -----------
+    private boolean turnActive = false;
+    private int stepsLeft;
+    // Naik setiap giliran selesai dan setiap reset; dipakai CommandQueue untuk menolak aksi basi
+    private long sequence = 0;
+    private final TurnResult lastTurn = new TurnResult();
+
+    private final List<Listener> listeners = new ArrayList<>();
+
+    /** Dadu dan seed game diambil dari split() rng, jadi satu seed = satu rangkaian game yang sama. */
+    public GameEngine(BoardEditor.BoardGraph board, List<BoardEditor.Player> players, SplittableRandom rng) {
+        this(board, new BoardEditor.Dice(rng.split()), players, rng.split());
+    }
+
+    public GameEngine(BoardEditor.BoardGraph board, BoardEditor.Dice dice, List<BoardEditor.Player> players) {
+        this(board, dice, players, new SplittableRandom());
+    }
+
+    public GameEngine(BoardEditor.BoardGraph board, BoardEditor.Dice dice, List<BoardEditor.Player> players,
+                      SplittableRandom seedSource) {
+        if (players.isEmpty()) throw new IllegalArgumentException("Minimal satu pemain.");
+        this.board = board;
+        this.dice = dice;
+        this.seedSource = seedSource;
+        this.players = Collections.unmodifiableList(new ArrayList<>(players));
+        this.state = new GameState(this.players.size(), board.size);
+        this.leaderboard = new Leaderboard(this.players.size());
+        reset();
+    }
+
+    /**
+     * Membatasi berapa langkah yang bisa dimundurkan dadu merah (0 = tidak terbatas).
+     * Langkah yang lebih tua dari batas dilupakan.
+     */
+    public void setMoveHistoryDepth(int maxDepth) {
+        for (BoardEditor.Player p : players) p.moveHistory.setMaxDepth(maxDepth);
+    }
+
+    public int getMoveHistoryDepth() {
+        return players.isEmpty() ? IntStack.UNBOUNDED : players.get(0).moveHistory.getMaxDepth();
+    }
+
+    /**
+     * Memakai skor node tetap (index 1..size, mis. dari {@link BoardFile}) alih-alih
+     * skor acak. null mengembalikan skor acak. Game di-reset.
+     */
+    public void setFixedNodeScores(byte[] scores) {
+        if (scores != null && scores.length != board.size + 1) {
+            throw new IllegalArgumentException("Jumlah skor node " + (scores.length - 1) + " tidak cocok dengan ukuran papan " + board.size);
+        }
+        this.fixedNodeScores = scores;
+        reset();
+    }
+
+    /** Skor node tetap yang sedang dipakai, atau null jika skor diacak dari seed game. */
+    public byte[] getFixedNodeScores() { return fixedNodeScores; }
+
+    /**
+     * Mengganti papan (ukuran harus sama) beserta skor node tetapnya (null = acak),
+     * lalu me-reset game. Dipakai saat berpindah layout dari {@link BoardLibrary}.
+     */
+    public void setBoard(BoardEditor.BoardGraph newBoard, byte[] nodeScores) {
+        if (newBoard.size != board.size) {
+            throw new IllegalArgumentException("Ukuran papan harus " + board.size + ", diberikan: " + newBoard.size);
+        }
+        if (nodeScores != null && nodeScores.length != board.size + 1) {
+            throw new IllegalArgumentException("Jumlah skor node " + (nodeScores.length - 1) + " tidak cocok dengan ukuran papan " + board.size);
+        }
+        this.board = newBoard;
+        this.fixedNodeScores = nodeScores;
+        reset();
+    }
+
+    public void addListener(Listener listener) { listeners.add(listener); }
+    public void removeListener(Listener listener) { listeners.remove(listener); }
+
+    // ================== UTIL: PRIMA & BINTANG ==================
+
+    public static boolean isStarPosition(int n) { return n > 0 && n % 5 == 0; }
+
+    public static boolean isPrime(int n) {
+        if (n <= 1) return false;
+        if (n <= 3) return true;
+        if (n % 2 == 0 || n % 3 == 0) return false;
+        for (int i = 5; i * i <= n; i += 6) {
+            if (n % i == 0 || n % (i + 2) == 0) return false;
+        }
+        return true;
+    }
+
+    // ================== RESET ==================
+
+    /** Memulai game baru dengan seed berikutnya. */
+    public void reset() {
+        reset(seedSource.nextLong());
+    }
+
+    /** Memulai game baru dengan seed tertentu (mis. saat memutar ulang {@link ReplayLog}). */
+    public void reset(long gameSeed) {
+        this.gameSeed = gameSeed;
+        this.scoreRandom = new SplittableRandom(gameSeed);
+
+        for (BoardEditor.Player p : players) {
+            p.position = 1;
+            p.moveHistory.clear();
+        }
+
+        state.reset();
+        currentPlayer = players.get(0);
+
+        turnActive = false;
+        stepsLeft = 0;
+
+        initScores();
+        leaderboard.reset();
+        sequence++;
+
+        for (Listener l : listeners) l.onReset();
+    }
+
+    private void initScores() {
+        if (fixedNodeScores != null) {
+            for (int i = 1; i <= board.size; i++) state.setNodeScore(i, fixedNodeScores[i]);
+            state.setNodeScore(1, 0);
+            return;
+        }
+        for (int i = 1; i <= board.size; i++) {
+            state.setNodeScore(i, 5 + scoreRandom.nextInt(16)); // 5..20
+        }
+        state.setNodeScore(1, 0);
+    }
+
+    // ================== GILIRAN ==================
+
+    /** Melempar dadu untuk pemain aktif dan menyiapkan langkahnya. */
+    public TurnResult beginTurn() {
+        return beginTurn(dice.rollNumber(), dice.isPositive());
+    }
+
+    /** Menyiapkan giliran dengan nilai dadu yang sudah diketahui. */
+    public TurnResult beginTurn(int diceNumber, boolean positive) {
+        if (state.gameOver) throw new IllegalStateException("Game sudah selesai.");
+        if (turnActive) throw new IllegalStateException("Giliran sebelumnya belum selesai.");
+
+        turnActive = true;
+        stepsLeft = diceNumber;
+
+        TurnResult r = lastTurn;
+        r.player = currentPlayer;
+        r.seat = state.currentSeat;
+        r.diceNumber = diceNumber;
+        r.positive = positive;
+        int pos = state.positions[state.currentSeat];
+        r.primeBoost = positive && isPrime(pos);
+        r.startPos = pos;
+        r.endPos = pos;
+        r.gained = 0;
+        r.totalScore = state.scores[state.currentSeat];
+        r.bonusTurn = false;
+        r.winner = false;
+        r.nextPlayer = currentPlayer;
+        r.nextSeat = state.currentSeat;
+        return r;
+    }
+
+    public boolean isMoving() { return turnActive && stepsLeft > 0; }
+    public boolean isTurnActive() { return turnActive; }
+
+    /**
+     * Menjalankan satu langkah dari giliran aktif.
+     * Mengembalikan false jika tidak ada langkah yang bisa diambil lagi.
+     */
+    public boolean step() {
+        if (!turnActive || stepsLeft <= 0) return false;
+
+        int from = state.positions[state.currentSeat];
+        if (lastTurn.positive) {
+            if (from >= board.size) {
+                stepsLeft = 0;
+                return false;
+            }
+            stepForward(lastTurn.primeBoost);
+        } else {
+            if (currentPlayer.moveHistory.isEmpty()) {
+                stepsLeft = 0;
+                return false;
+            }
+            stepBackward();
+        }
+        stepsLeft--;
+
+        for (Listener l : listeners) l.onStep(currentPlayer, from, state.positions[state.currentSeat]);
+        return true;
+    }
+
+    /** Klaim skor, bonus bintang, cek pemenang, lalu pindah giliran. */
+    public TurnResult finishTurn() {
+        if (!turnActive) throw new IllegalStateException("Tidak ada giliran aktif.");
+        turnActive = false;
+        stepsLeft = 0;
+
+        TurnResult r = lastTurn;
+        int seat = state.currentSeat;
+        int finalPos = state.positions[seat];
+        r.endPos = finalPos;
+
+        r.gained = state.claim(seat, finalPos);
+        r.totalScore = state.scores[seat];
+        leaderboard.update(seat, r.totalScore, finalPos);
+
+        if (finalPos >= board.size) {
+            state.gameOver = true;
+            r.winner = true;
+            r.nextPlayer = null;
+            r.nextSeat = -1;
+        } else if (isStarPosition(finalPos)) {
+            r.bonusTurn = true;
+            r.nextPlayer = currentPlayer;
+            r.nextSeat = seat;
+        } else {
+            int next = seat + 1 == state.playerCount ? 0 : seat + 1;
+            state.currentSeat = next;
+            currentPlayer = players.get(next);
+            r.nextPlayer = currentPlayer;
+            r.nextSeat = next;
+        }
+
+        sequence++;
+        for (Listener l : listeners) l.onTurnFinished(r);
+        return r;
+    }
+
+    /** Menjalankan semua sisa langkah giliran aktif sekaligus, lalu menyelesaikannya. */
+    public TurnResult resolveMove() {
+        while (step()) { }
+        return finishTurn();
+    }
+
+    /** Satu giliran penuh tanpa animasi: lempar, jalan, selesaikan. */
+    public TurnResult playTurn() {
+        beginTurn();
+        return resolveMove();
+    }
+
+    private int stepForward(boolean useShortest) {
+        int pos = state.positions[state.currentSeat];
+        if (pos >= board.size) return pos;
+        currentPlayer.moveHistory.push(pos);
+
+        int newPos = useShortest ? board.getNextOnShortestPath(pos) : board.getNextForward(pos);
+        if (newPos > board.size) newPos = board.size;
+        if (newPos <= 0) newPos = Math.min(board.size, pos + 1);
+
+        moveCurrent(newPos);
+        return newPos;
+    }
+
+    private int stepBackward() {
+        if (currentPlayer.moveHistory.isEmpty()) return state.positions[state.currentSeat];
+        int newPos = currentPlayer.moveHistory.pop();
+        moveCurrent(newPos);
+        return newPos;
+    }
+
+    /** Posisi di state adalah sumber utama; Player.position hanya cermin untuk tampilan. */
+    private void moveCurrent(int pos) {
+        state.positions[state.currentSeat] = pos;
+        currentPlayer.position = pos;
+    }
+
+    // ================== SNAPSHOT ==================
+
+    /** Salinan state di antara dua giliran; cukup untuk melanjutkan game yang sama persis. */
+    public static final class Snapshot {
+        final GameState state;
+        final int[][] moveHistories;
+        final long sequence;
+        final long gameSeed;
+        // Aturan yang ikut menentukan lanjutan game: kedalaman stack dan shortcut papan
+        final int historyDepth;
+        final int[][] boardLinks;
+
+        Snapshot(GameState state, int[][] moveHistories, long sequence, long gameSeed,
+                 int historyDepth, int[][] boardLinks) {
+            this.state = state;
+            this.moveHistories = moveHistories;
+            this.sequence = sequence;
+            this.gameSeed = gameSeed;
+            this.historyDepth = historyDepth;
+            this.boardLinks = boardLinks;
+        }
+
+        public GameState getState() { return state; }
+        public int[] getMoveHistory(int seat) { return moveHistories[seat]; }
+        public long getSequence() { return sequence; }
+        public long getGameSeed() { return gameSeed; }
+        public int getHistoryDepth() { return historyDepth; }
+
+        /** true jika papan punya ukuran dan shortcut (termasuk urutannya) yang sama dengan papan snapshot. */
+        public boolean matchesBoard(BoardEditor.BoardGraph board) {
+            List<int[]> links = board.getExtraLinks();
+            if (board.size != state.boardSize || links.size() != boardLinks.length) return false;
+            for (int i = 0; i < boardLinks.length; i++) {
+                if (!Arrays.equals(boardLinks[i], links.get(i))) return false;
+            }
+            return true;
+        }
+    }
+
+    public Snapshot snapshot() {
+        if (turnActive) throw new IllegalStateException("Snapshot hanya bisa diambil di antara giliran.");
+        GameState copy = new GameState(state.playerCount, state.boardSize);
+        copy.copyFrom(state);
+        int[][] histories = new int[players.size()][];
+        for (int i = 0; i < histories.length; i++) histories[i] = players.get(i).moveHistory.toArray();
+        List<int[]> links = board.getExtraLinks();
+        int[][] boardLinks = new int[links.size()][];
+        for (int i = 0; i < boardLinks.length; i++) boardLinks[i] = links.get(i).clone();
+        return new Snapshot(copy, histories, sequence, gameSeed, getMoveHistoryDepth(), boardLinks);
+    }
+
+    /**
+     * Mengembalikan engine ke snapshot. Dadu tidak ikut dikembalikan (state
+     * SplittableRandom tidak bisa dibaca), jadi lanjutan game yang harus sama persis
+     * memakai {@link #beginTurn(int, boolean)} dengan nilai dadu yang diketahui.
+     * Snapshot dari papan atau kedalaman stack lain ditolak.
+     */
+    public void restore(Snapshot s) {
+        if (s.moveHistories.length != players.size()) {
+            throw new IllegalArgumentException("Snapshot untuk " + s.moveHistories.length + " pemain, engine punya " + players.size());
+        }
+        if (!s.matchesBoard(board)) {
+            throw new IllegalArgumentException("Snapshot berasal dari papan lain (ukuran " + s.state.boardSize + ", "
+                    + s.boardLinks.length + " shortcut).");
+        }
+        if (s.historyDepth != getMoveHistoryDepth()) {
+            throw new IllegalArgumentException("Kedalaman stack snapshot " + s.historyDepth + ", engine " + getMoveHistoryDepth());
+        }
+        state.copyFrom(s.state);
+        turnActive = false;
+        stepsLeft = 0;
+        sequence = s.sequence;
+        gameSeed = s.gameSeed;
+        // Skor node sudah ada di state; scoreRandom baru dipakai lagi saat reset berikutnya
+        scoreRandom = new SplittableRandom(gameSeed);
+
+        leaderboard.reset();
+        for (int i = 0; i < players.size(); i++) {
+            BoardEditor.Player p = players.get(i);
+            p.position = state.positions[i];
+            p.moveHistory.clear();
+            for (int pos : s.moveHistories[i]) p.moveHistory.push(pos);
+            leaderboard.update(i, state.scores[i], state.positions[i]);
+        }
+        currentPlayer = players.get(state.currentSeat);
+        for (Listener l : listeners) l.onReset();
+    }
+
+    // ================== GETTER ==================
+
+    public int seatOf(BoardEditor.Player p) {
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i) == p) return i;
+        }
+        return -1;
+    }
+
+    public BoardEditor.BoardGraph getBoard() { return board; }
+    public Leaderboard getLeaderboard() { return leaderboard; }
+    public List<BoardEditor.Player> getPlayers() { return players; }
+    public BoardEditor.Player getCurrentPlayer() { return currentPlayer; }
+    public int getCurrentSeat() { return state.currentSeat; }
+    public boolean isGameOver() { return state.gameOver; }
+    public TurnResult getLastTurn() { return lastTurn; }
+    public long getSequence() { return sequence; }
+    public long getGameSeed() { return gameSeed; }
+    public GameState getState() { return state; }
+
+    public int getScore(int seat) { return state.scores[seat]; }
+
+    public int getScore(BoardEditor.Player p) {
+        int seat = seatOf(p);
+        return seat < 0 ? 0 : state.scores[seat];
+    }
+
+    public int getNodeScore(int pos) { return state.getNodeScore(pos); }
+    public boolean isNodeClaimed(int pos) { return state.isNodeClaimed(pos); }
+}
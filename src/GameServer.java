@@ -0,0 +1,425 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * GameServer - Banyak meja Snake & Ladder headless dalam satu JVM.
+ *
+ * Setiap sesi punya GameEngine, pemain dan skor sendiri, tetapi tidak punya thread
+ * sendiri: perintah untuk satu sesi masuk ke antrean serial sesi itu dan dijalankan
+ * bergantian di thread pool bersama. Jadi satu sesi tidak pernah diproses dua
+ * thread sekaligus (tanpa lock di engine), dan sesi yang menganggur hanya memakan
+ * memori state-nya. Papan (BoardGraph + tabel next-hop) read-only dan dipakai
+ * bersama oleh semua sesi berukuran sama. Papan acak per ukuran diturunkan dari
+ * seed server, jadi papan yang keluar dari cache (LRU, paling banyak
+ * MAX_CACHED_BOARDS) dibuat ulang persis sama. Ukuran papan dibatasi --max-size.
+ *
+ * Protokol teks per baris lewat socket lokal; setiap balasan diawali id sesi
+ * karena balasan dari sesi berbeda bisa datang tidak berurutan:
+ *
+ *   NEW pemain [ukuran]   : OK id
+ *   ROLL id [seq]         : TURN id seat=.. dice=.. from=.. to=.. ... seq=..
+ *   STATE id              : STATE id seq=.. turn=.. over=.. pos=.. score=..
+ *   RESET id [seq]        : OK id seq=..
+ *   CLOSE id              : OK id
+ *   SAVE id               : SAVED id base64   (snapshot {@link GameStateCodec})
+ *   LOAD base64           : OK idBaru         (sesi baru dari snapshot, mis. dari server lain)
+ *
+ * ROLL dan RESET masuk ke {@link CommandQueue} sesi. Jika 'seq' diberikan dan
+ * tidak sama dengan nomor urut sesi saat ini (klik ganda, aksi basi), balasannya
+ * REJECT id STALE seq=.. dan state tidak berubah.
+ *   STATS / QUIT
+ *
+ * Contoh: java GameServer --port=7777 --threads=4 --seed=7 --max-size=1024
+ */
+public class GameServer {
+
+    public static final int DEFAULT_PORT = 7777;
+    public static final int DEFAULT_MAX_BOARD_SIZE = 4096;
+    static final int MAX_CACHED_BOARDS = 32;
+
+    // ================== EKSEKUTOR SERIAL PER SESI ==================
+
+    /**
+     * Menjalankan tugas satu per satu sesuai urutan masuk di atas executor bersama.
+     * Antrean lock-free; paling banyak satu drain yang aktif per sesi.
+     */
+    static final class SerialExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final Executor pool;
+
+        SerialExecutor(Executor pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+            if (scheduled.compareAndSet(false, true)) pool.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        System.err.println("Tugas sesi gagal: " + e);
+                    }
+                }
+                scheduled.set(false);
+                // Tugas yang masuk di antara poll terakhir dan set(false) tidak boleh tertinggal
+                if (tasks.isEmpty() || !scheduled.compareAndSet(false, true)) return;
+            }
+        }
+    }
+
+    // ================== SESI ==================
+
+    public static final class Session {
+        public final long id;
+        final GameEngine engine;
+        final SerialExecutor executor;
+        // ROLL/RESET; consumer-nya antrean serial sesi, jadi urut dengan perintah lain
+        final CommandQueue commands;
+
+        Session(long id, GameEngine engine, SerialExecutor executor) {
+            this.id = id;
+            this.engine = engine;
+            this.executor = executor;
+            this.commands = new CommandQueue(executor, this::apply);
+        }
+
+        private CommandQueue.Status apply(CommandQueue.Command c) {
+            CommandQueue.Status rejected = CommandQueue.reject(engine, c);
+            if (rejected != null) return rejected;
+            if (c.type == CommandQueue.Type.ROLL) engine.playTurn();
+            else engine.reset();
+            return CommandQueue.Status.APPLIED;
+        }
+    }
+
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+    // Papan dari registerBoard tidak pernah dibuang; papan acak di-cache LRU
+    private final Map<Integer, BoardEditor.BoardGraph> registeredBoards = new ConcurrentHashMap<>();
+    private final Map<Integer, BoardEditor.BoardGraph> boards = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, BoardEditor.BoardGraph> eldest) {
+            return size() > MAX_CACHED_BOARDS;
+        }
+    };
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ExecutorService pool;
+    private final SplittableRandom rng;
+    private final long boardSeed;
+    private final int defaultSize;
+    private final int maxBoardSize;
+
+    public GameServer(int threads, int defaultSize, SplittableRandom rng) {
+        this(threads, defaultSize, DEFAULT_MAX_BOARD_SIZE, rng);
+    }
+
+    public GameServer(int threads, int defaultSize, int maxBoardSize, SplittableRandom rng) {
+        if (maxBoardSize < BoardEditor.MIN_BOARD_SIZE) {
+            throw new IllegalArgumentException("Ukuran papan maksimal minimal " + BoardEditor.MIN_BOARD_SIZE + ", diberikan: " + maxBoardSize);
+        }
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "game-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.defaultSize = defaultSize;
+        this.maxBoardSize = maxBoardSize;
+        this.rng = rng;
+        this.boardSeed = rng.nextLong();
+    }
+
+    /** Memakai papan tertentu untuk semua sesi berukuran board.size. */
+    public void registerBoard(BoardEditor.BoardGraph board) {
+        board.buildNextHopTable();
+        registeredBoards.put(board.size, board);
+    }
+
+    private BoardEditor.BoardGraph boardFor(int size) {
+        BoardEditor.BoardGraph registered = registeredBoards.get(size);
+        if (registered != null) return registered;
+        synchronized (boards) {
+            BoardEditor.BoardGraph b = boards.get(size);
+            if (b == null) {
+                // Seed hanya bergantung pada ukuran, jadi papan yang dibuang dari cache dibuat ulang sama persis
+                b = new BoardEditor.BoardGraph(size, new SplittableRandom(boardSeed ^ (size * 0x9E3779B97F4A7C15L)));
+                // Dibangun sebelum dibagi agar semua sesi hanya membaca
+                b.buildNextHopTable();
+                boards.put(size, b);
+            }
+            return b;
+        }
+    }
+
+    private int cachedBoardCount() {
+        synchronized (boards) {
+            return registeredBoards.size() + boards.size();
+        }
+    }
+
+    private SplittableRandom splitRandom() {
+        synchronized (rng) {
+            return rng.split();
+        }
+    }
+
+    public Session createSession(int playerCount, int size) {
+        Session s = newSession(playerCount, size);
+        sessions.put(s.id, s);
+        return s;
+    }
+
+    /** Sesi yang belum masuk peta 'sessions', jadi belum bisa dijangkau perintah klien. */
+    private Session newSession(int playerCount, int size) {
+        if (playerCount < MonteCarloSimulator.MIN_PLAYERS || playerCount > MonteCarloSimulator.MAX_PLAYERS) {
+            throw new IllegalArgumentException("Jumlah pemain harus " + MonteCarloSimulator.MIN_PLAYERS + " - "
+                    + MonteCarloSimulator.MAX_PLAYERS + ", diberikan: " + playerCount);
+        }
+        if (size < BoardEditor.MIN_BOARD_SIZE || size > maxBoardSize) {
+            throw new IllegalArgumentException("Ukuran papan harus " + BoardEditor.MIN_BOARD_SIZE + " - " + maxBoardSize + ", diberikan: " + size);
+        }
+        List<BoardEditor.Player> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) players.add(new BoardEditor.Player("P" + (i + 1), null));
+
+        long id = nextId.getAndIncrement();
+        return new Session(id, new GameEngine(boardFor(size), players, splitRandom()), new SerialExecutor(pool));
+    }
+
+    /**
+     * Membuat sesi baru dari snapshot (pause/resume, pindah server). Papan server
+     * untuk ukuran itu harus punya shortcut yang sama dengan papan snapshot.
+     */
+    public Session restoreSession(GameEngine.Snapshot snapshot) {
+        GameState st = snapshot.getState();
+        if (st.boardSize > maxBoardSize) {
+            throw new IllegalArgumentException("Ukuran papan harus " + BoardEditor.MIN_BOARD_SIZE + " - " + maxBoardSize + ", diberikan: " + st.boardSize);
+        }
+        if (!snapshot.matchesBoard(boardFor(st.boardSize))) {
+            throw new IllegalArgumentException("papan snapshot berbeda dengan papan server ukuran " + st.boardSize);
+        }
+        if (snapshot.getHistoryDepth() > GameStateCodec.MAX_HISTORY_DEPTH) {
+            throw new IllegalArgumentException("Kedalaman stack maksimal " + GameStateCodec.MAX_HISTORY_DEPTH + ", diberikan: " + snapshot.getHistoryDepth());
+        }
+        // Engine dipulihkan sebelum sesi dipublikasikan: id berurutan bisa ditebak klien lain,
+        // jadi sesi baru masuk 'sessions' hanya setelah restore selesai. Jika restore gagal
+        // (exception apa pun), sesi tidak pernah terdaftar dan tidak ada yang perlu dibersihkan.
+        Session s = newSession(st.playerCount, st.boardSize);
+        s.engine.setMoveHistoryDepth(snapshot.getHistoryDepth());
+        s.engine.restore(snapshot);
+        sessions.put(s.id, s);
+        return s;
+    }
+
+    /** Menjalankan aksi di antrean serial sesi; hasilnya selesai di thread pool. */
+    public <T> CompletableFuture<T> submit(long id, Function<GameEngine, T> action) {
+        Session s = sessions.get(id);
+        if (s == null) return CompletableFuture.failedFuture(new IllegalArgumentException("Sesi tidak ada: " + id));
+        return CompletableFuture.supplyAsync(() -> action.apply(s.engine), s.executor);
+    }
+
+    /**
+     * Mengantrekan ROLL/RESET. 'onDone' dipanggil di antrean sesi setelah aksi
+     * diterapkan atau ditolak, jadi boleh membaca engine sesi (mis. getLastTurn()).
+     */
+    public boolean offer(long id, CommandQueue.Type type, long expectedSequence,
+                         BiConsumer<Session, CommandQueue.Status> onDone) {
+        Session s = sessions.get(id);
+        if (s == null) return false;
+        s.commands.offer(new CommandQueue.Command(type, expectedSequence, st -> onDone.accept(s, st)));
+        return true;
+    }
+
+    public boolean closeSession(long id) {
+        return sessions.remove(id) != null;
+    }
+
+    public int sessionCount() { return sessions.size(); }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // ================== PROTOKOL ==================
+
+    static String formatTurn(long id, GameEngine.TurnResult r) {
+        return "TURN " + id
+                + " seat=" + r.seat
+                + " dice=" + (r.positive ? "+" : "-") + r.diceNumber
+                + " boost=" + r.primeBoost
+                + " from=" + r.startPos
+                + " to=" + r.endPos
+                + " gained=" + r.gained
+                + " total=" + r.totalScore
+                + " bonus=" + r.bonusTurn
+                + " winner=" + r.winner
+                + " next=" + r.nextSeat;
+    }
+
+    static String formatState(long id, GameEngine engine) {
+        GameState st = engine.getState();
+        StringBuilder sb = new StringBuilder("STATE ").append(id)
+                .append(" seq=").append(engine.getSequence())
+                .append(" turn=").append(st.getCurrentSeat())
+                .append(" over=").append(st.isGameOver())
+                .append(" pos=");
+        for (int i = 0; i < st.playerCount; i++) sb.append(i == 0 ? "" : ",").append(st.getPosition(i));
+        sb.append(" score=");
+        for (int i = 0; i < st.playerCount; i++) sb.append(i == 0 ? "" : ",").append(st.getScore(i));
+        return sb.toString();
+    }
+
+    /** Menangani satu baris perintah; balasan dikirim lewat 'reply' (bisa dari thread lain). */
+    void handle(String line, Consumer<String> reply) {
+        String[] p = line.trim().split("\\s+");
+        String cmd = p[0].toUpperCase();
+        try {
+            switch (cmd) {
+                case "NEW": {
+                    int players = p.length > 1 ? Integer.parseInt(p[1]) : MonteCarloSimulator.MIN_PLAYERS;
+                    int size = p.length > 2 ? Integer.parseInt(p[2]) : defaultSize;
+                    reply.accept("OK " + createSession(players, size).id);
+                    return;
+                }
+                case "ROLL":
+                case "RESET": {
+                    long id = sessionArg(p);
+                    CommandQueue.Type type = cmd.equals("ROLL") ? CommandQueue.Type.ROLL : CommandQueue.Type.RESET;
+                    long seq = p.length > 2 ? Long.parseLong(p[2]) : CommandQueue.ANY_SEQUENCE;
+                    boolean queued = offer(id, type, seq, (s, st) -> {
+                        String now = " seq=" + s.engine.getSequence();
+                        if (st != CommandQueue.Status.APPLIED) reply.accept("REJECT " + id + " " + st + now);
+                        else if (type == CommandQueue.Type.ROLL) reply.accept(formatTurn(id, s.engine.getLastTurn()) + now);
+                        else reply.accept("OK " + id + now);
+                    });
+                    if (!queued) reply.accept("ERR " + id + " sesi tidak ada");
+                    return;
+                }
+                case "STATE": {
+                    long id = sessionArg(p);
+                    reply(id, e -> formatState(id, e), reply);
+                    return;
+                }
+                case "SAVE": {
+                    long id = sessionArg(p);
+                    reply(id, e -> "SAVED " + id + " " + Base64.getEncoder().encodeToString(GameStateCodec.encode(e.snapshot())), reply);
+                    return;
+                }
+                case "LOAD": {
+                    if (p.length < 2) throw new IllegalArgumentException("snapshot tidak ada");
+                    GameEngine.Snapshot snap = GameStateCodec.decode(Base64.getDecoder().decode(p[1]));
+                    reply.accept("OK " + restoreSession(snap).id);
+                    return;
+                }
+                case "CLOSE": {
+                    long id = sessionArg(p);
+                    reply.accept(closeSession(id) ? "OK " + id : "ERR " + id + " sesi tidak ada");
+                    return;
+                }
+                case "STATS":
+                    reply.accept("STATS sessions=" + sessionCount() + " boards=" + cachedBoardCount());
+                    return;
+                default:
+                    reply.accept("ERR perintah tidak dikenal: " + cmd);
+            }
+        } catch (RuntimeException e) {
+            reply.accept("ERR " + e.getMessage());
+        }
+    }
+
+    private static long sessionArg(String[] p) {
+        if (p.length < 2) throw new IllegalArgumentException("id sesi tidak ada");
+        return Long.parseLong(p[1]);
+    }
+
+    private void reply(long id, Function<GameEngine, String> action, Consumer<String> reply) {
+        submit(id, action).whenComplete((res, err) -> {
+            if (err != null) {
+                Throwable cause = err.getCause() != null ? err.getCause() : err;
+                reply.accept("ERR " + id + " " + cause.getMessage());
+            } else {
+                reply.accept(res);
+            }
+        });
+    }
+
+    /** Menerima koneksi di localhost. Satu thread pembaca per koneksi; sesi tetap di pool bersama. */
+    public void serve(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.out.println("GameServer mendengarkan di " + server.getLocalSocketAddress());
+            while (true) {
+                Socket socket = server.accept();
+                Thread t = new Thread(() -> serveClient(socket), "game-client-" + socket.getPort());
+                t.setDaemon(true);
+                t.start();
+            }
+        }
+    }
+
+    private void serveClient(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            Consumer<String> reply = msg -> {
+                synchronized (out) {
+                    out.println(msg);
+                }
+            };
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) continue;
+                if (line.trim().equalsIgnoreCase("QUIT")) break;
+                handle(line, reply);
+            }
+        } catch (IOException e) {
+            System.err.println("Koneksi terputus: " + e.getMessage());
+        }
+    }
+
+    // ================== MAIN ==================
+
+    public static void main(String[] args) throws IOException {
+        int port = BoardEditor.parseIntArg(args, "--port=", DEFAULT_PORT);
+        int threads = BoardEditor.parseIntArg(args, "--threads=", Runtime.getRuntime().availableProcessors());
+        int size = BoardEditor.parseBoardSize(args);
+        int maxSize = BoardEditor.parseIntArg(args, "--max-size=", Math.max(DEFAULT_MAX_BOARD_SIZE, size));
+        String boardPath = BoardEditor.parseStringArg(args, "--board=", null);
+
+        GameServer server = new GameServer(Math.max(1, threads), size, Math.max(maxSize, size), BoardEditor.parseRandom(args));
+        if (boardPath != null) {
+            BoardFile file = BoardFile.read(java.nio.file.Paths.get(boardPath));
+            if (file.hasLinks()) server.registerBoard(file.toBoardGraph());
+        }
+        server.serve(port);
+    }
+}
@@ -0,0 +1,97 @@
+import java.util.Arrays;
+
+/**
+ * GameState - Seluruh state satu game dalam array primitif (struct-of-arrays).
+ *
+ * Pemain diwakili nomor kursi 0..playerCount-1, jadi skor, posisi dan jumlah node
+ * yang diklaim tiap pemain cukup disimpan di int[] tanpa boxing. Node papan
+ * memakai index 1..boardSize. State bisa disalin utuh dengan {@link #copyFrom}
+ * sehingga murah untuk snapshot atau diberikan ke worker simulasi.
+ *
+ * Skor node (0..20) disimpan sebagai byte dan status klaim sebagai bitset long[],
+ * jadi satu node hanya memakan sekitar 1,1 byte dan reset klaim cukup mengosongkan
+ * boardSize/64 word.
+ */
+public class GameState {
+
+    public static final int MAX_NODE_SCORE = Byte.MAX_VALUE;
+
+    public final int playerCount;
+    public final int boardSize;
+
+    // --------- PER PEMAIN (index = kursi) -----------
+    final int[] positions;
+    final int[] scores;
+    final int[] claims;
+
+    // --------- PER NODE (index = nomor node) -----------
+    final byte[] nodeScores;
+    final long[] claimedBits;
+
+    int currentSeat;
+    boolean gameOver;
+
+    public GameState(int playerCount, int boardSize) {
+        if (playerCount < 1) throw new IllegalArgumentException("Minimal satu pemain.");
+        this.playerCount = playerCount;
+        this.boardSize = boardSize;
+        this.positions = new int[playerCount];
+        this.scores = new int[playerCount];
+        this.claims = new int[playerCount];
+        this.nodeScores = new byte[boardSize + 1];
+        this.claimedBits = new long[(boardSize >> 6) + 1];
+        reset();
+    }
+
+    /** Semua pemain kembali ke node 1 dengan skor 0. Skor node tidak diubah. */
+    public void reset() {
+        Arrays.fill(positions, 1);
+        Arrays.fill(scores, 0);
+        Arrays.fill(claims, 0);
+        Arrays.fill(claimedBits, 0L);
+        currentSeat = 0;
+        gameOver = false;
+    }
+
+    /** Menyalin seluruh isi state lain dengan jumlah pemain dan ukuran papan yang sama. */
+    public void copyFrom(GameState o) {
+        if (o.playerCount != playerCount || o.boardSize != boardSize) {
+            throw new IllegalArgumentException("Ukuran state berbeda: " + o.playerCount + "x" + o.boardSize
+                    + " vs " + playerCount + "x" + boardSize);
+        }
+        System.arraycopy(o.positions, 0, positions, 0, playerCount);
+        System.arraycopy(o.scores, 0, scores, 0, playerCount);
+        System.arraycopy(o.claims, 0, claims, 0, playerCount);
+        System.arraycopy(o.nodeScores, 0, nodeScores, 0, nodeScores.length);
+        System.arraycopy(o.claimedBits, 0, claimedBits, 0, claimedBits.length);
+        currentSeat = o.currentSeat;
+        gameOver = o.gameOver;
+    }
+
+    /** Mengklaim skor node untuk kursi. Mengembalikan skor yang didapat (0 jika sudah diklaim). */
+    int claim(int seat, int node) {
+        long bit = 1L << node;
+        int word = node >> 6;
+        int gained = nodeScores[node];
+        if ((claimedBits[word] & bit) != 0 || gained <= 0) return 0;
+        claimedBits[word] |= bit;
+        scores[seat] += gained;
+        claims[seat]++;
+        return gained;
+    }
+
+    void setNodeScore(int node, int score) {
+        if (score < 0 || score > MAX_NODE_SCORE) {
+            throw new IllegalArgumentException("Skor node harus 0 - " + MAX_NODE_SCORE + ", diberikan: " + score);
+        }
+        nodeScores[node] = (byte) score;
+    }
+
+    public int getPosition(int seat) { return positions[seat]; }
+    public int getScore(int seat) { return scores[seat]; }
+    public int getClaimCount(int seat) { return claims[seat]; }
+    public int getNodeScore(int node) { return nodeScores[node]; }
+    public boolean isNodeClaimed(int node) { return (claimedBits[node >> 6] & (1L << node)) != 0; }
+    public int getCurrentSeat() { return currentSeat; }
+    public boolean isGameOver() { return gameOver; }
+}
@@ -0,0 +1,152 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * GameStateCodec - Format biner berversi untuk {@link GameEngine.Snapshot}.
+ *
+ * Satu snapshot berisi semua yang dibutuhkan untuk melanjutkan game: GameState
+ * (posisi, skor, klaim per kursi, skor node, bitset klaim, kursi aktif, status
+ * selesai), stack langkah tiap pemain, nomor urut engine, seed game, kedalaman
+ * stack dan shortcut papan. Papan dan kedalaman stack ikut disimpan agar restore
+ * di papan lain ditolak, bukan diam-diam lanjut dengan aturan berbeda. Dipakai
+ * untuk crash recovery, pause/resume, dan memindahkan sesi antar server.
+ *
+ * State dadu tidak ikut: SplittableRandom tidak bisa dibaca atau diserialisasi,
+ * jadi setelah restore dadu berlanjut dari stream milik engine tujuan. Game yang
+ * harus identik lemparan per lemparan diputar ulang lewat {@link ReplayLog}.
+ *
+ * Layout (big-endian): int MAGIC, short VERSION, short jumlah pemain, int ukuran
+ * papan, long sequence, long seed game, int kursi aktif, byte selesai, lalu per
+ * kursi (posisi, skor, klaim), skor node (byte), bitset klaim (long), kedalaman
+ * stack (int), shortcut (int n, n pasang int), dan per kursi stack langkah
+ * (int n, n int).
+ *
+ * Decode memeriksa batas jumlah pemain, ukuran papan dan kedalaman stack, serta
+ * memastikan sisa data cukup untuk header itu, sebelum mengalokasikan apa pun.
+ */
+public final class GameStateCodec {
+
+    static final int MAGIC = 0x534C5353; // "SLSS"
+    static final short VERSION = 2;
+    // Batas header sebelum apa pun dialokasikan; data dari jaringan tidak dipercaya
+    static final int MAX_PLAYERS = 64;
+    static final int MAX_BOARD_SIZE = 1 << 24;
+    static final int MAX_HISTORY_DEPTH = 1 << 20;
+    private static final int HEADER_BYTES = 4 + 2 + 2 + 4 + 8 + 8 + 4 + 1;
+
+    private GameStateCodec() {
+    }
+
+    public static int encodedSize(GameEngine.Snapshot s) {
+        GameState st = s.state;
+        int bytes = HEADER_BYTES + (int) fixedPayload(st.playerCount, st.boardSize);
+        bytes += s.boardLinks.length * 8;
+        for (int[] h : s.moveHistories) bytes += h.length * 4;
+        return bytes;
+    }
+
+    /** Panjang data setelah header untuk papan ini, tanpa shortcut dan dengan semua stack langkah kosong. */
+    private static long fixedPayload(int players, int size) {
+        return players * 12L            // posisi, skor, klaim
+                + (size + 1L)           // skor node
+                + ((size >> 6) + 1L) * 8 // bitset klaim
+                + 4 + 4                 // kedalaman stack, jumlah shortcut
+                + players * 4L;         // panjang stack per kursi
+    }
+
+    public static byte[] encode(GameEngine.Snapshot s) {
+        ByteBuffer buf = ByteBuffer.allocate(encodedSize(s));
+        encode(s, buf);
+        return buf.array();
+    }
+
+    /** Menulis snapshot mulai dari posisi buffer saat ini. */
+    public static void encode(GameEngine.Snapshot s, ByteBuffer buf) {
+        GameState st = s.state;
+        buf.putInt(MAGIC).putShort(VERSION).putShort((short) st.playerCount).putInt(st.boardSize);
+        buf.putLong(s.sequence).putLong(s.gameSeed);
+        buf.putInt(st.currentSeat).put((byte) (st.gameOver ? 1 : 0));
+        for (int i = 0; i < st.playerCount; i++) {
+            buf.putInt(st.positions[i]).putInt(st.scores[i]).putInt(st.claims[i]);
+        }
+        buf.put(st.nodeScores);
+        for (long w : st.claimedBits) buf.putLong(w);
+        buf.putInt(s.historyDepth).putInt(s.boardLinks.length);
+        for (int[] e : s.boardLinks) buf.putInt(e[0]).putInt(e[1]);
+        for (int[] h : s.moveHistories) {
+            buf.putInt(h.length);
+            for (int pos : h) buf.putInt(pos);
+        }
+    }
+
+    public static GameEngine.Snapshot decode(byte[] data) {
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        GameEngine.Snapshot s = decode(buf);
+        if (buf.hasRemaining()) throw new IllegalArgumentException("Snapshot tidak valid: " + buf.remaining() + " byte berlebih.");
+        return s;
+    }
+
+    /** Membaca snapshot dari posisi buffer saat ini. Data rusak ditolak dengan IllegalArgumentException. */
+    public static GameEngine.Snapshot decode(ByteBuffer buf) {
+        try {
+            if (buf.getInt() != MAGIC) throw new IllegalArgumentException("Bukan snapshot game.");
+            short version = buf.getShort();
+            // Versi 1 tidak menyimpan papan dan kedalaman stack, jadi tidak bisa diperiksa
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Versi snapshot " + version + " tidak didukung (hanya " + VERSION + ").");
+            }
+            int players = buf.getShort();
+            int size = buf.getInt();
+            if (players < 1 || players > MAX_PLAYERS || size < BoardEditor.MIN_BOARD_SIZE || size > MAX_BOARD_SIZE) {
+                throw new IllegalArgumentException("Snapshot tidak valid: " + players + " pemain, papan " + size);
+            }
+            long sequence = buf.getLong();
+            long gameSeed = buf.getLong();
+            // Ukuran di header harus cocok dengan data yang benar-benar ada sebelum GameState dialokasikan
+            long needed = 4 + 1 + fixedPayload(players, size);
+            if (buf.remaining() < needed) {
+                throw new IllegalArgumentException("Snapshot terpotong: header butuh " + needed + " byte, tersisa " + buf.remaining());
+            }
+
+            GameState st = new GameState(players, size);
+            st.currentSeat = checkRange(buf.getInt(), 0, players - 1, "kursi aktif");
+            st.gameOver = buf.get() != 0;
+            for (int i = 0; i < players; i++) {
+                st.positions[i] = checkRange(buf.getInt(), 1, size, "posisi");
+                st.scores[i] = buf.getInt();
+                st.claims[i] = buf.getInt();
+            }
+            buf.get(st.nodeScores);
+            for (int i = 0; i < st.claimedBits.length; i++) st.claimedBits[i] = buf.getLong();
+
+            int historyDepth = checkRange(buf.getInt(), 0, MAX_HISTORY_DEPTH, "kedalaman stack");
+            int linkCount = checkRange(buf.getInt(), 0, buf.remaining() / 8, "jumlah shortcut");
+            int[][] links = new int[linkCount][];
+            for (int i = 0; i < linkCount; i++) {
+                int a = checkRange(buf.getInt(), 1, size, "shortcut");
+                int b = checkRange(buf.getInt(), 1, size, "shortcut");
+                if (a == b) throw new IllegalArgumentException("Snapshot tidak valid: shortcut " + a + "-" + b);
+                links[i] = new int[]{a, b};
+            }
+
+            int[][] histories = new int[players][];
+            for (int i = 0; i < players; i++) {
+                int n = checkRange(buf.getInt(), 0, buf.remaining() / 4, "panjang stack");
+                if (historyDepth > 0 && n > historyDepth) {
+                    throw new IllegalArgumentException("Snapshot tidak valid: panjang stack " + n + " melebihi kedalaman " + historyDepth);
+                }
+                int[] h = new int[n];
+                for (int j = 0; j < n; j++) h[j] = checkRange(buf.getInt(), 1, size, "posisi di stack");
+                histories[i] = h;
+            }
+            return new GameEngine.Snapshot(st, histories, sequence, gameSeed, historyDepth, links);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Snapshot terpotong.", e);
+        }
+    }
+
+    private static int checkRange(int v, int min, int max, String what) {
+        if (v < min || v > max) throw new IllegalArgumentException("Snapshot tidak valid: " + what + " " + v);
+        return v;
+    }
+}
@@ -0,0 +1,135 @@
+import javax.swing.AbstractListModel;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * HistoryLog - Model riwayat langkah berbasis ring buffer.
+ *
+ * Hanya 'capacity' baris terakhir yang disimpan di heap; baris tertua dibuang saat
+ * penuh. Jika spill file diaktifkan, setiap baris juga ditulis ke file sehingga log
+ * lengkap tetap ada tanpa memakan heap. Penulisan spill di-buffer dan hanya di-flush
+ * saat buffer penuh (SPILL_BUFFER_CHARS) atau sudah SPILL_FLUSH_INTERVAL_MS sejak
+ * flush terakhir, agar EDT tidak melakukan syscall per baris; close() wajib dipanggil
+ * saat aplikasi ditutup supaya sisa buffer tertulis. Ditampilkan lewat JList yang
+ * hanya menggambar baris yang terlihat.
+ */
+public class HistoryLog extends AbstractListModel<String> {
+
+    public static final int DEFAULT_CAPACITY = 500;
+    public static final int SPILL_BUFFER_CHARS = 8192;
+    public static final long SPILL_FLUSH_INTERVAL_MS = 1000;
+
+    private String[] lines;
+    private int head = 0;   // index baris tertua
+    private int count = 0;
+
+    private Writer spill;
+    private long lastFlushNanos;
+
+    public HistoryLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public HistoryLog(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Kapasitas riwayat minimal 1, diberikan: " + capacity);
+        this.lines = new String[capacity];
+    }
+
+    /** Menulis semua baris berikutnya (append) ke file. Gagal membuka file = spill nonaktif. */
+    public void enableSpill(String path) {
+        closeSpill();
+        try {
+            spill = new BufferedWriter(new FileWriter(path, true), SPILL_BUFFER_CHARS);
+            lastFlushNanos = System.nanoTime();
+        } catch (IOException e) {
+            System.err.println("Gagal membuka file riwayat: " + path);
+            spill = null;
+        }
+    }
+
+    /** Menulis sisa buffer dan menutup spill file. Aman dipanggil berulang kali. */
+    public void close() {
+        closeSpill();
+    }
+
+    public void closeSpill() {
+        if (spill == null) return;
+        try {
+            spill.close();
+        } catch (IOException ignored) {
+        }
+        spill = null;
+    }
+
+    public int getCapacity() { return lines.length; }
+
+    /** Mengubah kapasitas; baris terbaru dipertahankan. */
+    public void setCapacity(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Kapasitas riwayat minimal 1, diberikan: " + capacity);
+        int oldCount = count;
+        int keep = Math.min(count, capacity);
+        String[] resized = new String[capacity];
+        for (int i = 0; i < keep; i++) {
+            resized[i] = getElementAt(count - keep + i);
+        }
+        lines = resized;
+        head = 0;
+        count = keep;
+        if (oldCount > keep) fireIntervalRemoved(this, keep, oldCount - 1);
+        if (keep > 0) fireContentsChanged(this, 0, keep - 1);
+    }
+
+    public void add(String line) {
+        writeSpill(line);
+
+        if (count == lines.length) {
+            // Buang baris tertua
+            lines[head] = line;
+            head = (head + 1) % lines.length;
+            fireIntervalRemoved(this, 0, 0);
+            fireIntervalAdded(this, count - 1, count - 1);
+        } else {
+            lines[(head + count) % lines.length] = line;
+            count++;
+            fireIntervalAdded(this, count - 1, count - 1);
+        }
+    }
+
+    /** Mengosongkan tampilan. Isi spill file tidak dihapus. */
+    public void clear() {
+        if (count == 0) return;
+        int last = count - 1;
+        java.util.Arrays.fill(lines, null);
+        head = 0;
+        count = 0;
+        fireIntervalRemoved(this, 0, last);
+    }
+
+    @Override
+    public int getSize() { return count; }
+
+    @Override
+    public String getElementAt(int index) {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + count);
+        return lines[(head + index) % lines.length];
+    }
+
+    private void writeSpill(String line) {
+        if (spill == null) return;
+        try {
+            spill.write(line);
+            spill.write(System.lineSeparator());
+            // BufferedWriter sudah flush sendiri saat buffer penuh; di sini hanya batas waktu
+            long now = System.nanoTime();
+            if (now - lastFlushNanos >= SPILL_FLUSH_INTERVAL_MS * 1_000_000L) {
+                spill.flush();
+                lastFlushNanos = now;
+            }
+        } catch (IOException e) {
+            System.err.println("Gagal menulis file riwayat, spill dimatikan: " + e.getMessage());
+            closeSpill();
+        }
+    }
+}
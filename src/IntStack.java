@@ -0,0 +1,107 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * IntStack - Stack int primitif tanpa boxing dan tanpa sinkronisasi.
+ *
+ * Secara default tumbuh otomatis. Dengan maxDepth > 0 stack dibatasi: array tetap
+ * tumbuh bertahap sampai maxDepth (batas besar tidak dialokasikan di depan), dan
+ * baru setelah berisi maxDepth elemen, elemen terbawah (tertua) dibuang sehingga
+ * hanya maxDepth langkah terakhir yang bisa di-pop. {@link #clear()} hanya mengembalikan counter ke nol, O(1) dan tanpa
+ * sampah.
+ */
+public class IntStack {
+
+    public static final int UNBOUNDED = 0;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] items;
+    private int bottom = 0;   // index elemen terbawah (hanya bergeser di mode terbatas)
+    private int count = 0;
+    private int maxDepth;
+
+    public IntStack() {
+        this(UNBOUNDED);
+    }
+
+    public IntStack(int maxDepth) {
+        if (maxDepth < 0) throw new IllegalArgumentException("maxDepth tidak boleh negatif: " + maxDepth);
+        this.maxDepth = maxDepth;
+        this.items = new int[initialCapacity(maxDepth, 0)];
+    }
+
+    public int getMaxDepth() { return maxDepth; }
+
+    /** Mengubah batas kedalaman (0 = tidak terbatas); elemen teratas dipertahankan. */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 0) throw new IllegalArgumentException("maxDepth tidak boleh negatif: " + maxDepth);
+        int keep = maxDepth > 0 ? Math.min(count, maxDepth) : count;
+        int[] resized = new int[initialCapacity(maxDepth, keep)];
+        for (int i = 0; i < keep; i++) {
+            resized[i] = get(count - keep + i);
+        }
+        this.items = resized;
+        this.bottom = 0;
+        this.count = keep;
+        this.maxDepth = maxDepth;
+    }
+
+    public void push(int value) {
+        if (count == items.length) {
+            if (maxDepth > 0 && count == maxDepth) {
+                // Penuh di mode terbatas: timpa elemen terbawah
+                items[bottom] = value;
+                bottom = (bottom + 1) % items.length;
+                return;
+            }
+            // Belum penuh berarti bottom masih 0, jadi salin biasa aman
+            long grown = items.length * 2L;
+            items = Arrays.copyOf(items, (int) (maxDepth > 0 ? Math.min(grown, maxDepth) : grown));
+        }
+        items[index(count)] = value;
+        count++;
+    }
+
+    public int pop() {
+        if (count == 0) throw new NoSuchElementException("Stack kosong.");
+        count--;
+        return items[index(count)];
+    }
+
+    public int peek() {
+        if (count == 0) throw new NoSuchElementException("Stack kosong.");
+        return items[index(count - 1)];
+    }
+
+    /** Elemen ke-i dari bawah (0 = terbawah). */
+    public int get(int i) {
+        if (i < 0 || i >= count) throw new IndexOutOfBoundsException("Index: " + i + ", size: " + count);
+        return items[index(i)];
+    }
+
+    /** Isi stack dari bawah ke atas. */
+    public int[] toArray() {
+        int[] out = new int[count];
+        for (int i = 0; i < count; i++) out[i] = items[index(i)];
+        return out;
+    }
+
+    public int size() { return count; }
+    public boolean isEmpty() { return count == 0; }
+
+    public void clear() {
+        bottom = 0;
+        count = 0;
+    }
+
+    /** Kapasitas awal untuk menampung 'keep' elemen tanpa melewati maxDepth. */
+    private static int initialCapacity(int maxDepth, int keep) {
+        int capacity = Math.max(DEFAULT_CAPACITY, keep);
+        return maxDepth > 0 ? Math.min(capacity, maxDepth) : capacity;
+    }
+
+    private int index(int i) {
+        int j = bottom + i;
+        return j < items.length ? j : j - items.length;
+    }
+}
@@ -0,0 +1,78 @@
+import java.util.Arrays;
+
+/**
+ * Leaderboard - Peringkat pemain yang diperbarui secara inkremental.
+ *
+ * Urutan kursi disimpan dalam array dan hanya digeser saat skor satu kursi berubah
+ * (insertion step, bukan sort ulang). Urutan sama dengan sort stabil lama: skor
+ * tertinggi dulu, skor sama diurutkan menurut nomor kursi. {@link #version()} naik
+ * setiap kali urutan, skor atau posisi berubah, sehingga tampilan cukup dirender
+ * ulang jika versinya berbeda.
+ */
+public class Leaderboard {
+
+    private final int[] scores;
+    private final int[] positions;
+    private final int[] order;   // order[rank] = kursi
+    private final int[] rankOf;  // rankOf[kursi] = rank
+    private long version = 0;
+
+    public Leaderboard(int seats) {
+        scores = new int[seats];
+        positions = new int[seats];
+        order = new int[seats];
+        rankOf = new int[seats];
+        reset();
+    }
+
+    public void reset() {
+        Arrays.fill(scores, 0);
+        Arrays.fill(positions, 1);
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            rankOf[i] = i;
+        }
+        version++;
+    }
+
+    /** Memperbarui skor dan posisi satu kursi. Tidak melakukan apa-apa jika nilainya sama. */
+    public void update(int seat, int score, int position) {
+        if (scores[seat] == score && positions[seat] == position) return;
+        positions[seat] = position;
+
+        int old = scores[seat];
+        scores[seat] = score;
+        if (score > old) {
+            int r = rankOf[seat];
+            while (r > 0 && ranksBefore(seat, order[r - 1])) {
+                moveTo(order[r - 1], r);
+                r--;
+            }
+            moveTo(seat, r);
+        } else if (score < old) {
+            int r = rankOf[seat];
+            while (r < order.length - 1 && ranksBefore(order[r + 1], seat)) {
+                moveTo(order[r + 1], r);
+                r++;
+            }
+            moveTo(seat, r);
+        }
+        version++;
+    }
+
+    private boolean ranksBefore(int a, int b) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+    }
+
+    private void moveTo(int seat, int rank) {
+        order[rank] = seat;
+        rankOf[seat] = rank;
+    }
+
+    public int size() { return order.length; }
+    public int seatAt(int rank) { return order[rank]; }
+    public int rankOf(int seat) { return rankOf[seat]; }
+    public int scoreOf(int seat) { return scores[seat]; }
+    public int positionOf(int seat) { return positions[seat]; }
+    public long version() { return version; }
+}
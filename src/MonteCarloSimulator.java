@@ -0,0 +1,257 @@
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * MonteCarloSimulator - Menjalankan banyak game headless secara paralel untuk
+ * menilai sebuah papan.
+ *
+ * Game dibagi ke dalam chunk berukuran tetap. Setiap chunk punya seed sendiri
+ * (turunan dari seed utama dan index chunk), satu GameEngine yang dipakai ulang
+ * untuk semua game di chunk itu, dan satu objek Stats. Karena pembagian chunk
+ * tidak bergantung pada jumlah thread, hasil untuk satu seed selalu sama.
+ *
+ * Contoh: java MonteCarloSimulator --size=64 --players=4 --games=1000000 --seed=7
+ *         java MonteCarloSimulator --board=board.slb --players=4 --games=1000000
+ */
+public class MonteCarloSimulator {
+
+    public static final int MIN_PLAYERS = 2;
+    public static final int MAX_PLAYERS = 4;
+    public static final int DEFAULT_MAX_TURNS = 10_000;
+
+    private static final int CHUNK_GAMES = 4096;
+    private static final int MAX_SCORE_BUCKETS = 1 << 16;
+
+    private final BoardEditor.BoardGraph board;
+    private final int playerCount;
+    private final int maxTurns;
+
+    public MonteCarloSimulator(BoardEditor.BoardGraph board, int playerCount) {
+        this(board, playerCount, DEFAULT_MAX_TURNS);
+    }
+
+    public MonteCarloSimulator(BoardEditor.BoardGraph board, int playerCount, int maxTurns) {
+        if (playerCount < MIN_PLAYERS || playerCount > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Jumlah pemain harus " + MIN_PLAYERS + " - " + MAX_PLAYERS + ", diberikan: " + playerCount);
+        }
+        if (maxTurns < 1) throw new IllegalArgumentException("maxTurns minimal 1, diberikan: " + maxTurns);
+        this.board = board;
+        this.playerCount = playerCount;
+        this.maxTurns = maxTurns;
+    }
+
+    // ================== STATISTIK ==================
+
+    /** Akumulator hasil simulasi. Satu per chunk, lalu digabung. */
+    public static class Stats {
+        public final int playerCount;
+        public long games;
+        public long unfinished;
+        public final long[] seatWins;
+        public long primeBoostTurns;
+        public long bonusTurns;
+        public long totalTurns;
+
+        // lengthHist[t] = jumlah game selesai dalam t giliran
+        final long[] lengthHist;
+        // scoreHist[s] = jumlah skor akhir pemain bernilai s (s terakhir = overflow)
+        final long[] scoreHist;
+        final long[] seatScoreSum;
+
+        Stats(int playerCount, int maxTurns, int boardSize) {
+            this.playerCount = playerCount;
+            this.seatWins = new long[playerCount];
+            this.seatScoreSum = new long[playerCount];
+            this.lengthHist = new long[maxTurns + 1];
+            // Skor node maksimal 20, jadi skor pemain tidak lebih dari 20 * boardSize
+            this.scoreHist = new long[(int) Math.min(20L * boardSize + 1, MAX_SCORE_BUCKETS)];
+        }
+
+        void merge(Stats o) {
+            games += o.games;
+            unfinished += o.unfinished;
+            primeBoostTurns += o.primeBoostTurns;
+            bonusTurns += o.bonusTurns;
+            totalTurns += o.totalTurns;
+            for (int i = 0; i < playerCount; i++) {
+                seatWins[i] += o.seatWins[i];
+                seatScoreSum[i] += o.seatScoreSum[i];
+            }
+            for (int i = 0; i < lengthHist.length; i++) lengthHist[i] += o.lengthHist[i];
+            for (int i = 0; i < scoreHist.length; i++) scoreHist[i] += o.scoreHist[i];
+        }
+
+        public double winRate(int seat) { return games == 0 ? 0 : (double) seatWins[seat] / games; }
+
+        public double meanScore(int seat) { return games == 0 ? 0 : (double) seatScoreSum[seat] / games; }
+
+        public double meanLength() {
+            long finished = games - unfinished;
+            if (finished == 0) return 0;
+            long sum = 0;
+            for (int t = 0; t < lengthHist.length; t++) sum += t * lengthHist[t];
+            return (double) sum / finished;
+        }
+
+        /** Panjang game (jumlah giliran) pada persentil p (0..100), hanya game yang selesai. */
+        public int lengthPercentile(double p) { return percentile(lengthHist, games - unfinished, p); }
+
+        /** Skor akhir pemain pada persentil p (0..100), semua kursi digabung. */
+        public int scorePercentile(double p) { return percentile(scoreHist, games * playerCount, p); }
+
+        private static int percentile(long[] hist, long total, double p) {
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(p / 100.0 * total);
+            if (rank < 1) rank = 1;
+            long acc = 0;
+            for (int i = 0; i < hist.length; i++) {
+                acc += hist[i];
+                if (acc >= rank) return i;
+            }
+            return hist.length - 1;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Game: ").append(games)
+                    .append(" (tidak selesai: ").append(unfinished).append(")\n");
+            for (int i = 0; i < playerCount; i++) {
+                sb.append(String.format("Kursi %d : menang %.2f%% | rata-rata skor %.1f%n",
+                        i + 1, winRate(i) * 100, meanScore(i)));
+            }
+            sb.append(String.format("Panjang game: rata-rata %.2f | p50 %d | p90 %d | p99 %d giliran%n",
+                    meanLength(), lengthPercentile(50), lengthPercentile(90), lengthPercentile(99)));
+            sb.append(String.format("Skor pemain: p10 %d | p50 %d | p90 %d%n",
+                    scorePercentile(10), scorePercentile(50), scorePercentile(90)));
+            double perGame = games == 0 ? 0 : 1.0 / games;
+            sb.append(String.format("PRIME BOOST per game: %.2f | BONUS TURN per game: %.2f | giliran per game: %.2f",
+                    primeBoostTurns * perGame, bonusTurns * perGame, totalTurns * perGame));
+            return sb.toString();
+        }
+    }
+
+    // ================== SIMULASI ==================
+
+    public Stats run(long games, long seed) {
+        return run(games, seed, ForkJoinPool.commonPool());
+    }
+
+    public Stats run(long games, long seed, ForkJoinPool pool) {
+        if (games < 0) throw new IllegalArgumentException("Jumlah game tidak boleh negatif: " + games);
+        // Tabel routing dibangun sebelum fork agar semua worker hanya membaca
+        board.buildNextHopTable();
+        long chunks = (games + CHUNK_GAMES - 1) / CHUNK_GAMES;
+        if (chunks == 0) return new Stats(playerCount, maxTurns, board.size);
+        return pool.invoke(new ChunkTask(0, chunks, games, seed));
+    }
+
+    private class ChunkTask extends RecursiveTask<Stats> {
+        private final long fromChunk;
+        private final long toChunk;
+        private final long totalGames;
+        private final long seed;
+
+        ChunkTask(long fromChunk, long toChunk, long totalGames, long seed) {
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.totalGames = totalGames;
+            this.seed = seed;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (toChunk - fromChunk == 1) {
+                long first = fromChunk * CHUNK_GAMES;
+                long count = Math.min(CHUNK_GAMES, totalGames - first);
+                return simulateChunk(new SplittableRandom(seed + fromChunk * 0x9E3779B97F4A7C15L), count);
+            }
+            long mid = (fromChunk + toChunk) >>> 1;
+            ChunkTask left = new ChunkTask(fromChunk, mid, totalGames, seed);
+            ChunkTask right = new ChunkTask(mid, toChunk, totalGames, seed);
+            left.fork();
+            Stats result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+
+    private Stats simulateChunk(SplittableRandom rng, long count) {
+        List<BoardEditor.Player> seats = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) seats.add(new BoardEditor.Player("P" + (i + 1), null));
+        GameEngine engine = new GameEngine(board, seats, rng);
+        Stats stats = new Stats(playerCount, maxTurns, board.size);
+
+        // Loop per game memakai ulang engine, GameState dan TurnResult yang sama
+        for (long g = 0; g < count; g++) {
+            engine.reset();
+            int turns = 0;
+            while (!engine.isGameOver() && turns < maxTurns) {
+                GameEngine.TurnResult r = engine.playTurn();
+                turns++;
+                if (r.primeBoost) stats.primeBoostTurns++;
+                if (r.bonusTurn) stats.bonusTurns++;
+                if (r.winner) stats.seatWins[r.seat]++;
+            }
+
+            stats.games++;
+            stats.totalTurns += turns;
+            if (engine.isGameOver()) stats.lengthHist[turns]++;
+            else stats.unfinished++;
+
+            for (int s = 0; s < playerCount; s++) {
+                int score = engine.getScore(s);
+                stats.seatScoreSum[s] += score;
+                stats.scoreHist[Math.min(score, stats.scoreHist.length - 1)]++;
+            }
+        }
+        return stats;
+    }
+
+    // ================== MAIN ==================
+
+    public static void main(String[] args) {
+        int size = BoardEditor.parseBoardSize(args);
+        long seed = BoardEditor.parseRandom(args).nextLong();
+        int players = BoardEditor.parseIntArg(args, "--players=", MIN_PLAYERS);
+        long games = BoardEditor.parseIntArg(args, "--games=", 100_000);
+        int links = BoardEditor.parseIntArg(args, "--links=", Math.min(BoardEditor.BoardGraph.DEFAULT_LINK_COUNT,
+                BoardEditor.BoardGraph.maxExtraLinks(size)));
+        String boardPath = BoardEditor.parseStringArg(args, "--board=", null);
+
+        SplittableRandom boardRng = new SplittableRandom(seed);
+        BoardEditor.BoardGraph board;
+        if (boardPath != null) {
+            // Papan tersimpan: semua run membandingkan shortcut yang sama persis
+            BoardFile file;
+            try {
+                file = BoardFile.read(java.nio.file.Paths.get(boardPath));
+            } catch (java.io.IOException e) {
+                System.err.println("Gagal membaca papan: " + e.getMessage());
+                return;
+            }
+            if (!file.hasLinks()) {
+                System.err.println(boardPath + " tidak menyimpan shortcut.");
+                return;
+            }
+            board = file.toBoardGraph();
+            size = board.size;
+            links = board.getExtraLinks().size();
+            boardRng.split();
+        } else {
+            board = new BoardEditor.BoardGraph(size, links, boardRng.split());
+        }
+        MonteCarloSimulator sim = new MonteCarloSimulator(board, players);
+
+        long start = System.nanoTime();
+        Stats stats = sim.run(games, boardRng.nextLong());
+        double secs = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Papan " + size + " node, " + links + " shortcut, " + players + " pemain, seed " + seed);
+        System.out.println(stats);
+        System.out.printf("Waktu: %.2f s (%.0f game/detik, %d core)%n",
+                secs, games / Math.max(secs, 1e-9), ForkJoinPool.commonPool().getParallelism());
+    }
+}
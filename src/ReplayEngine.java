@@ -0,0 +1,120 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * ReplayEngine - Memutar ulang {@link ReplayLog} dengan menjalankan aturan game lagi.
+ *
+ * Setiap 'snapshotInterval' giliran state engine disimpan, jadi {@link #seek(int)}
+ * ke giliran N cukup memulihkan snapshot terdekat sebelum N lalu menjalankan paling
+ * banyak interval-1 giliran. Bonus turn di log dicocokkan dengan hasil aturan;
+ * log yang tidak cocok dengan papan atau aturan ditolak.
+ *
+ * Papan dan skor node tetap dibangun ulang dari log itu sendiri, jadi file papan
+ * tidak dibutuhkan, juga untuk papan acak.
+ *
+ * Contoh: java ReplayEngine --replay=game.slr --turn=40
+ */
+public class ReplayEngine {
+
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 64;
+
+    private final ReplayLog log;
+    private final GameEngine engine;
+    private final int snapshotInterval;
+    // snapshots.get(k) = state setelah k * snapshotInterval giliran
+    private final List<GameEngine.Snapshot> snapshots = new ArrayList<>();
+    private int turn = 0;
+
+    /** Memutar ulang di papan yang tercatat di log. */
+    public ReplayEngine(ReplayLog log) {
+        this(log, log.buildBoard(), log.getNodeScores());
+    }
+
+    public ReplayEngine(ReplayLog log, BoardEditor.BoardGraph board, byte[] fixedNodeScores) {
+        this(log, board, fixedNodeScores, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public ReplayEngine(ReplayLog log, BoardEditor.BoardGraph board, byte[] fixedNodeScores, int snapshotInterval) {
+        if (snapshotInterval < 1) throw new IllegalArgumentException("Interval snapshot minimal 1, diberikan: " + snapshotInterval);
+        this.log = log;
+        this.snapshotInterval = snapshotInterval;
+
+        List<BoardEditor.Player> players = new ArrayList<>(log.playerCount);
+        for (int i = 0; i < log.playerCount; i++) players.add(new BoardEditor.Player("P" + (i + 1), null));
+        // Dadu tidak pernah dilempar: semua nilai dadu diambil dari log
+        this.engine = new GameEngine(board, new BoardEditor.Dice(new SplittableRandom(0)), players, new SplittableRandom(0));
+        if (fixedNodeScores != null) engine.setFixedNodeScores(fixedNodeScores);
+        engine.setMoveHistoryDepth(log.historyDepth);
+        engine.reset(log.gameSeed);
+        snapshots.add(engine.snapshot());
+    }
+
+    public GameEngine getEngine() { return engine; }
+    public ReplayLog getLog() { return log; }
+    public int getTurn() { return turn; }
+
+    /** Menjalankan giliran berikutnya dari log. */
+    public GameEngine.TurnResult stepTurn() {
+        if (turn >= log.turnCount()) throw new NoSuchElementException("Log hanya berisi " + log.turnCount() + " giliran.");
+        if (engine.isGameOver()) throw new IllegalStateException("Replay tidak cocok: game sudah selesai sebelum giliran " + turn);
+
+        engine.beginTurn(log.diceAt(turn), log.positiveAt(turn));
+        GameEngine.TurnResult r = engine.resolveMove();
+        if (r.bonusTurn != log.bonusAt(turn)) {
+            throw new IllegalStateException("Replay tidak cocok pada giliran " + turn + ": bonus turn " + r.bonusTurn
+                    + ", log " + log.bonusAt(turn));
+        }
+        turn++;
+        if (turn % snapshotInterval == 0 && snapshots.size() == turn / snapshotInterval) {
+            snapshots.add(engine.snapshot());
+        }
+        return r;
+    }
+
+    /** Memindahkan replay ke state setelah 'target' giliran (0 = awal game). */
+    public void seek(int target) {
+        if (target < 0 || target > log.turnCount()) {
+            throw new IndexOutOfBoundsException("Giliran: " + target + ", jumlah: " + log.turnCount());
+        }
+        int k = Math.min(target / snapshotInterval, snapshots.size() - 1);
+        int fromSnapshot = k * snapshotInterval;
+        // Mundur, atau maju melewati snapshot yang sudah ada: mulai dari snapshot terdekat
+        if (target < turn || fromSnapshot > turn) {
+            engine.restore(snapshots.get(k));
+            turn = fromSnapshot;
+        }
+        while (turn < target) stepTurn();
+    }
+
+    /** Memutar seluruh log dan mengembalikan engine di state akhir. */
+    public GameEngine replayAll() {
+        seek(log.turnCount());
+        return engine;
+    }
+
+    // ================== MAIN ==================
+
+    public static void main(String[] args) throws IOException {
+        String replayPath = BoardEditor.parseStringArg(args, "--replay=", null);
+        if (replayPath == null) {
+            System.err.println("Pakai --replay=<file> [--turn=N]");
+            return;
+        }
+        ReplayLog log = ReplayLog.read(Paths.get(replayPath));
+        int target = BoardEditor.parseIntArg(args, "--turn=", log.turnCount());
+
+        ReplayEngine replay = new ReplayEngine(log);
+        replay.seek(Math.max(0, Math.min(target, log.turnCount())));
+
+        GameEngine e = replay.getEngine();
+        System.out.println("Papan " + log.boardId + " | seed " + log.gameSeed + " | giliran " + replay.getTurn() + "/" + log.turnCount());
+        for (int i = 0; i < log.playerCount; i++) {
+            System.out.println("Kursi " + (i + 1) + ": posisi " + e.getState().getPosition(i) + " | skor " + e.getScore(i));
+        }
+        System.out.println(e.isGameOver() ? "Game selesai." : "Giliran berikutnya: kursi " + (e.getCurrentSeat() + 1));
+    }
+}
@@ -0,0 +1,249 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * ReplayLog - Catatan satu game yang cukup untuk memutar ulang game itu persis.
+ *
+ * Yang disimpan hanya seed game (menentukan skor node), id papan, jumlah pemain,
+ * kedalaman stack langkah ({@link GameEngine#setMoveHistoryDepth}), papan itu
+ * sendiri (ukuran, shortcut, skor node tetap jika ada) dan satu byte per giliran:
+ * nilai dadu (bit 0-2), tanda positif (bit 3) dan bonus turn bintang (bit 4).
+ * Semua hal lain (posisi, skor, PRIME BOOST, pemenang) dihitung ulang oleh aturan
+ * lewat {@link ReplayEngine}. Karena papan ikut tercatat, papan acak yang tidak
+ * pernah ditulis ke file tetap bisa diputar ulang; id papan hanya label. Log hanya
+ * ditambah di ujung, tidak pernah diubah.
+ *
+ * Panjang dari file dibaca bertahap per blok, jadi header rusak yang mengklaim
+ * jutaan giliran berakhir sebagai EOFException, bukan alokasi raksasa.
+ */
+public class ReplayLog {
+
+    static final int MAGIC = 0x534C5250; // "SLRP"
+    static final short VERSION = 3;
+    private static final int READ_CHUNK = 1 << 16;
+
+    static final int DICE_MASK = 0x07;
+    static final int POSITIVE = 0x08;
+    static final int BONUS = 0x10;
+
+    public final long gameSeed;
+    public final String boardId;
+    public final int playerCount;
+    // 0 = stack langkah tidak terbatas
+    public final int historyDepth;
+    public final int boardSize;
+    private final int[][] boardLinks;
+    // null = skor node diacak dari seed game
+    private final byte[] nodeScores;
+
+    private byte[] turns = new byte[64];
+    private int count = 0;
+
+    public ReplayLog(long gameSeed, String boardId, int playerCount, int historyDepth,
+                     BoardEditor.BoardGraph board, byte[] nodeScores) {
+        this(gameSeed, boardId, playerCount, historyDepth, board.size,
+                board.getExtraLinks().toArray(new int[0][]), nodeScores);
+    }
+
+    private ReplayLog(long gameSeed, String boardId, int playerCount, int historyDepth,
+                      int boardSize, int[][] boardLinks, byte[] nodeScores) {
+        if (playerCount < 1) throw new IllegalArgumentException("Minimal satu pemain.");
+        if (historyDepth < 0) throw new IllegalArgumentException("Kedalaman stack tidak boleh negatif: " + historyDepth);
+        if (nodeScores != null && nodeScores.length != boardSize + 1) {
+            throw new IllegalArgumentException("Jumlah skor node " + (nodeScores.length - 1) + " tidak cocok dengan ukuran papan " + boardSize);
+        }
+        this.gameSeed = gameSeed;
+        this.boardId = boardId;
+        this.playerCount = playerCount;
+        this.historyDepth = historyDepth;
+        this.boardSize = boardSize;
+        this.boardLinks = new int[boardLinks.length][];
+        for (int i = 0; i < boardLinks.length; i++) this.boardLinks[i] = boardLinks[i].clone();
+        this.nodeScores = nodeScores == null ? null : nodeScores.clone();
+    }
+
+    /** Papan tempat game ini dimainkan, dibangun ulang dari shortcut yang tercatat. */
+    public BoardEditor.BoardGraph buildBoard() {
+        return new BoardEditor.BoardGraph(boardSize, Arrays.asList(boardLinks));
+    }
+
+    public byte[] getNodeScores() { return nodeScores == null ? null : nodeScores.clone(); }
+
+    public void append(int diceNumber, boolean positive, boolean bonusTurn) {
+        if (diceNumber < 1 || diceNumber > 6) throw new IllegalArgumentException("Nilai dadu harus 1 - 6, diberikan: " + diceNumber);
+        if (count == turns.length) turns = Arrays.copyOf(turns, turns.length * 2);
+        turns[count++] = (byte) (diceNumber | (positive ? POSITIVE : 0) | (bonusTurn ? BONUS : 0));
+    }
+
+    public void append(GameEngine.TurnResult r) {
+        append(r.diceNumber, r.positive, r.bonusTurn);
+    }
+
+    public int turnCount() { return count; }
+    public int diceAt(int turn) { return entry(turn) & DICE_MASK; }
+    public boolean positiveAt(int turn) { return (entry(turn) & POSITIVE) != 0; }
+    public boolean bonusAt(int turn) { return (entry(turn) & BONUS) != 0; }
+
+    private int entry(int turn) {
+        if (turn < 0 || turn >= count) throw new IndexOutOfBoundsException("Giliran: " + turn + ", jumlah: " + count);
+        return turns[turn];
+    }
+
+    // ================== FILE ==================
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(gameSeed);
+        out.writeUTF(boardId);
+        out.writeByte(playerCount);
+        out.writeInt(historyDepth);
+        out.writeInt(boardSize);
+        out.writeInt(boardLinks.length);
+        for (int[] e : boardLinks) {
+            out.writeInt(e[0]);
+            out.writeInt(e[1]);
+        }
+        out.writeBoolean(nodeScores != null);
+        if (nodeScores != null) out.write(nodeScores, 1, boardSize);
+        out.writeInt(count);
+        out.write(turns, 0, count);
+    }
+
+    public static ReplayLog read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Bukan file replay.");
+        short version = in.readShort();
+        // Versi lama tidak menyimpan kedalaman stack atau papan, jadi tidak bisa diputar ulang dengan benar
+        if (version != VERSION) throw new IOException("Versi replay " + version + " tidak didukung (hanya " + VERSION + ").");
+        long gameSeed = in.readLong();
+        String boardId = in.readUTF();
+        int playerCount = in.readUnsignedByte();
+        int historyDepth = in.readInt();
+        if (playerCount < 1 || historyDepth < 0) {
+            throw new IOException("Header replay tidak valid: " + playerCount + " pemain, kedalaman stack " + historyDepth);
+        }
+        int boardSize = in.readInt();
+        if (boardSize < BoardEditor.MIN_BOARD_SIZE || boardSize > GameStateCodec.MAX_BOARD_SIZE) {
+            throw new IOException("Ukuran papan replay tidak valid: " + boardSize);
+        }
+        int linkCount = in.readInt();
+        if (linkCount < 0) throw new IOException("Jumlah shortcut tidak valid: " + linkCount);
+        // Tanpa kapasitas awal: list hanya tumbuh sejauh data benar-benar ada
+        List<int[]> links = new ArrayList<>();
+        for (int i = 0; i < linkCount; i++) {
+            int a = in.readInt();
+            int b = in.readInt();
+            if (a < 1 || a > boardSize || b < 1 || b > boardSize || a == b) {
+                throw new IOException("Shortcut replay tidak valid: " + a + "-" + b);
+            }
+            links.add(new int[]{a, b});
+        }
+        byte[] nodeScores = null;
+        if (in.readBoolean()) {
+            byte[] scores = readChunked(in, boardSize);
+            nodeScores = new byte[boardSize + 1];
+            System.arraycopy(scores, 0, nodeScores, 1, boardSize);
+            for (int i = 1; i <= boardSize; i++) {
+                if (nodeScores[i] < 0) throw new IOException("Skor node replay tidak valid: " + i + " " + nodeScores[i]);
+            }
+        }
+        ReplayLog log = new ReplayLog(gameSeed, boardId, playerCount, historyDepth, boardSize,
+                links.toArray(new int[0][]), nodeScores);
+        int n = in.readInt();
+        if (n < 0) throw new IOException("Jumlah giliran tidak valid: " + n);
+        byte[] turns = readChunked(in, n);
+        log.turns = turns.length > 0 ? turns : new byte[1];
+        log.count = n;
+        return log;
+    }
+
+    /** Membaca n byte per blok; array hanya tumbuh sejauh data benar-benar terbaca. */
+    private static byte[] readChunked(DataInput in, int n) throws IOException {
+        byte[] out = new byte[Math.min(n, READ_CHUNK)];
+        int read = 0;
+        while (read < n) {
+            if (read == out.length) out = Arrays.copyOf(out, (int) Math.min(n, out.length * 2L));
+            int len = Math.min(out.length - read, READ_CHUNK);
+            in.readFully(out, read, len);
+            read += len;
+        }
+        return out;
+    }
+
+    public void write(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            write(out);
+        }
+    }
+
+    public static ReplayLog read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return read(in);
+        }
+    }
+
+    // ================== PEREKAM ==================
+
+    /**
+     * Listener engine yang mencatat setiap giliran. Log baru dimulai setiap reset;
+     * log game yang selesai (ada pemenang, atau di-reset setelah minimal satu giliran)
+     * diberikan ke 'sink'. Header diambil ulang pada giliran pertama, jadi pengaturan
+     * yang diubah setelah reset (mis. kedalaman stack) tetap tercatat.
+     */
+    public static class Recorder implements GameEngine.Listener {
+        private final GameEngine engine;
+        private final Consumer<ReplayLog> sink;
+        private String boardId;
+        private ReplayLog current;
+        private boolean delivered;
+
+        public Recorder(GameEngine engine, String boardId, Consumer<ReplayLog> sink) {
+            this.engine = engine;
+            this.boardId = boardId;
+            this.sink = sink;
+            start();
+            engine.addListener(this);
+        }
+
+        /** Dipakai untuk game berikutnya, mis. saat papan berganti. */
+        public void setBoardId(String boardId) { this.boardId = boardId; }
+
+        public ReplayLog current() { return current; }
+
+        private void start() {
+            current = new ReplayLog(engine.getGameSeed(), boardId, engine.getPlayers().size(), engine.getMoveHistoryDepth(),
+                    engine.getBoard(), engine.getFixedNodeScores());
+            delivered = false;
+        }
+
+        private void deliver() {
+            if (delivered || current.turnCount() == 0) return;
+            delivered = true;
+            if (sink != null) sink.accept(current);
+        }
+
+        @Override
+        public void onTurnFinished(GameEngine.TurnResult r) {
+            if (current.turnCount() == 0) start();
+            current.append(r);
+            if (r.winner) deliver();
+        }
+
+        @Override
+        public void onReset() {
+            deliver();
+            start();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.awt.image.BufferedImage;
 import javax.imageio.ImageIO;
 
 public class SnakeLadder extends JFrame {
@@ -94,39 +95,129 @@ public class SnakeLadder extends JFrame {
         }
     }
 
+    // ================== CACHE GAMBAR TOKEN ==================
+    // PNG karakter dibaca sekali dari disk, lalu hasil skala per ukuran piksel disimpan.
+    // Hanya dipakai dari EDT, jadi tidak perlu sinkronisasi.
+    private static class TokenImageCache {
+
+        private static final Map<String, BufferedImage> sources = new HashMap<>();
+        private static final Map<String, Map<Integer, BufferedImage>> scaled = new HashMap<>();
+        private static final Set<String> missing = new HashSet<>();
+
+        static BufferedImage get(String name, int size) {
+            Map<Integer, BufferedImage> bySize = scaled.get(name);
+            if (bySize != null) {
+                BufferedImage img = bySize.get(size);
+                if (img != null) return img;
+            }
+
+            BufferedImage source = loadSource(name);
+            if (source == null) return null;
+
+            BufferedImage img = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = img.createGraphics();
+            g2.drawImage(source.getScaledInstance(size, size, Image.SCALE_SMOOTH), 0, 0, null);
+            g2.dispose();
+
+            scaled.computeIfAbsent(name, k -> new HashMap<>()).put(size, img);
+            return img;
+        }
+
+        private static BufferedImage loadSource(String name) {
+            BufferedImage source = sources.get(name);
+            if (source != null || missing.contains(name)) return source;
+
+            for (int i = 0; i < POKEMON_NAMES.length; i++) {
+                if (!POKEMON_NAMES[i].equals(name)) continue;
+                String path = CHARACTER_BASE_PATH + POKEMON_FILES[i];
+                try {
+                    source = ImageIO.read(new File(path));
+                } catch (IOException e) {
+                    source = null;
+                }
+                if (source == null) System.err.println("Gagal memuat gambar token: " + path);
+                break;
+            }
+
+            if (source == null) missing.add(name);
+            else sources.put(name, source);
+            return source;
+        }
+    }
+
+    // ================== MODE KECEPATAN ==================
+    // Interval lempar dadu palsu, jumlah lemparan palsu, dan interval per langkah token.
+    // INSTAN menyelesaikan seluruh langkah dalam satu panggilan engine tanpa animasi.
+    public enum SpeedMode {
+        NORMAL("Normal", 80, 10, 220),
+        FAST("Cepat", 30, 4, 60),
+        INSTANT("Instan", 0, 0, 0);
+
+        final String label;
+        final int rollIntervalMs;
+        final int rollTicks;
+        final int stepIntervalMs;
+
+        SpeedMode(String label, int rollIntervalMs, int rollTicks, int stepIntervalMs) {
+            this.label = label;
+            this.rollIntervalMs = rollIntervalMs;
+            this.rollTicks = rollTicks;
+            this.stepIntervalMs = stepIntervalMs;
+        }
+
+        @Override
+        public String toString() { return label; }
+
+        static SpeedMode parse(String[] args) {
+            for (String arg : args) {
+                if (!arg.startsWith("--speed=")) continue;
+                String v = arg.substring("--speed=".length()).trim();
+                for (SpeedMode m : values()) {
+                    if (m.name().equalsIgnoreCase(v) || m.label.equalsIgnoreCase(v)) return m;
+                }
+                System.err.println("Mode kecepatan tidak dikenal: " + arg + ". Memakai Normal.");
+            }
+            return NORMAL;
+        }
+    }
+
     // ================== KONFIGURASI BOARD ==================
-    private static final int BOARD_SIZE = 64;
     private static final Dimension BOARD_DIM = new Dimension(640, 680);
-    private static final String POSITION_FILE = "node_positions.txt";
 
 
     // ================== DATA GAME ==================
+    private final int boardSize;
+    private final SplittableRandom rng;
     private List<BoardEditor.Player> players = new ArrayList<>();
-    private Queue<BoardEditor.Player> turnQueue = new ArrayDeque<>();
-    private BoardEditor.Player currentPlayer;
 
     private BoardEditor.BoardGraph board;
-    private BoardEditor.Dice dice;
-
-    private boolean gameOver = false;
+    private GameEngine engine;
+    // Papan dari board.slb / node_positions.txt; null jika tidak ada atau ukurannya lain
+    private BoardFile boardFile;
+    private boolean boardFileMismatch = false;
+    // Opsional: layout berganti tiap reset, diambil dari cache BoardLibrary
+    private BoardLibrary boardLibrary;
+    private String currentBoardId;
+    // Log replay per game (seed + dadu); ditulis ke replayDir jika diset
+    private ReplayLog.Recorder replayRecorder;
+    private String replayDir;
 
     // --------- STATE ANIMASI GERAK -----------
-    private javax.swing.Timer moveTimer;
-    private int stepsLeft;
-    private boolean movePositive;
-    private int moveInitialPos;
-    private int currentDiceNumber;
-    private boolean currentDicePositive;
-    private boolean useShortestThisRoll;
-
-    // --------- SKOR NODE & PLAYER -----------
-    private int[] nodeScores = new int[BOARD_SIZE + 1];
-    private boolean[] nodeClaimed = new boolean[BOARD_SIZE + 1];
-    private Map<BoardEditor.Player, Integer> playerScores = new HashMap<>();
-    private Random scoreRandom = new Random();
+    // Satu frame clock untuk lempar dadu, shake/bounce dadu dan langkah token
+    private final AnimationScheduler animations = new AnimationScheduler();
+    // Semua aksi tombol (dan input lain) masuk ke sini dan diterapkan berurutan di EDT
+    private final CommandQueue commands = new CommandQueue(SwingUtilities::invokeLater, this::applyCommand);
+    private final RollAnimation rollAnimation = new RollAnimation();
+    private final MoveAnimation moveAnimation = new MoveAnimation();
+
+    // --------- KECEPATAN -----------
+    private SpeedMode speedMode = SpeedMode.NORMAL;
+    private int rollIntervalMs = SpeedMode.NORMAL.rollIntervalMs;
+    private int rollTicks = SpeedMode.NORMAL.rollTicks;
+    private int stepIntervalMs = SpeedMode.NORMAL.stepIntervalMs;
 
     // --------- RANDOM ANIMASI DADU -----------
-    private Random diceAnimRandom = new Random();
+    private SplittableRandom diceAnimRandom;
 
     // ================== KOMPONEN GUI ==================
     private BoardPanel boardPanel;
@@ -135,20 +226,55 @@ public class SnakeLadder extends JFrame {
     private JLabel lblStatus;
     private JButton btnRoll;
     private JButton btnReset;
-    private JTextArea historyArea;
+    private JComboBox<SpeedMode> speedBox;
+    private final HistoryLog historyLog = new HistoryLog();
+    private JList<String> historyList;
     private DicePanel dicePanel;
     private JTextArea leaderboardArea;
+    private long renderedLeaderboardVersion = -1;
     // Komponen Volume Baru
     private JSlider volSlider;
 
     // ================== MAIN ==================
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new SnakeLadder().setVisible(true));
+        int size = BoardEditor.parseBoardSize(args);
+        SplittableRandom rng = BoardEditor.parseRandom(args);
+        SpeedMode speed = SpeedMode.parse(args);
+        int rollMs = BoardEditor.parseIntArg(args, "--roll-ms=", -1);
+        int stepMs = BoardEditor.parseIntArg(args, "--step-ms=", -1);
+        int historyCapacity = BoardEditor.parseIntArg(args, "--history-capacity=", HistoryLog.DEFAULT_CAPACITY);
+        String historyFile = BoardEditor.parseStringArg(args, "--history-file=", null);
+        int undoDepth = BoardEditor.parseIntArg(args, "--undo-depth=", IntStack.UNBOUNDED);
+        String boardDir = BoardEditor.parseStringArg(args, "--board-dir=", null);
+        String replayDir = BoardEditor.parseStringArg(args, "--replay-dir=", null);
+        int boardCache = BoardEditor.parseIntArg(args, "--board-cache=", BoardLibrary.DEFAULT_CAPACITY);
+        SwingUtilities.invokeLater(() -> {
+            SnakeLadder game = new SnakeLadder(size, rng);
+            game.setSpeedMode(speed);
+            if (rollMs >= 0 || stepMs >= 0) game.setAnimationIntervals(rollMs, stepMs);
+            game.configureHistory(historyCapacity, historyFile);
+            game.setMoveHistoryDepth(undoDepth);
+            game.setReplayDir(replayDir);
+            if (boardDir != null) game.setBoardLibrary(new BoardLibrary(java.nio.file.Paths.get(boardDir), Math.max(1, boardCache)));
+            game.setVisible(true);
+        });
     }
 
     public SnakeLadder() {
+        this(BoardEditor.DEFAULT_BOARD_SIZE, new SplittableRandom());
+    }
+
+    public SnakeLadder(int boardSize, SplittableRandom rng) {
+        this.boardSize = boardSize;
+        this.rng = rng;
         setTitle("Mini Project 1 (Snake N Ladders)");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                historyLog.close();
+            }
+        });
         setResizable(true);
 
         initGame();
@@ -167,29 +293,12 @@ public class SnakeLadder extends JFrame {
 
     // ================== UTIL: PRIMA & BINTANG (PUBLIC STATIC) ==================
 
-    public static boolean isStarPosition(int n) { return n > 0 && n % 5 == 0; }
-
-    public static boolean isPrime(int n) {
-        if (n <= 1) return false;
-        if (n <= 3) return true;
-        if (n % 2 == 0 || n % 3 == 0) return false;
-        for (int i = 5; i * i <= n; i += 6) {
-            if (n % i == 0 || n % (i + 2) == 0) return false;
-        }
-        return true;
-    }
-
+    public static boolean isStarPosition(int n) { return GameEngine.isStarPosition(n); }
 
-    private void initScores() {
-        for (int i = 1; i <= BOARD_SIZE; i++) {
-            nodeScores[i] = 5 + scoreRandom.nextInt(16); // 5..20
-            nodeClaimed[i] = false;
-        }
-        nodeScores[1] = 0;
-    }
+    public static boolean isPrime(int n) { return GameEngine.isPrime(n); }
 
     private int getScore(BoardEditor.Player p) {
-        return playerScores.getOrDefault(p, 0);
+        return engine.getScore(p);
     }
 
     private String buildScoreBoardText() {
@@ -206,23 +315,25 @@ public class SnakeLadder extends JFrame {
 
     private void updateLeaderboard() {
         if (leaderboardArea == null) return;
+        Leaderboard lb = engine.getLeaderboard();
+        // Teks hanya dibangun ulang jika urutan, skor atau posisi berubah
+        if (lb.version() == renderedLeaderboardVersion) return;
+        renderedLeaderboardVersion = lb.version();
+
         StringBuilder sb = new StringBuilder();
         sb.append("Leaderboard:\n\n");
 
-        List<BoardEditor.Player> sorted = new ArrayList<>(players);
-        sorted.sort((a, b) -> Integer.compare(getScore(b), getScore(a)));
-
-        int rank = 1;
-        for (BoardEditor.Player p : sorted) {
-            sb.append(rank)
+        List<BoardEditor.Player> seats = engine.getPlayers();
+        for (int rank = 0; rank < lb.size(); rank++) {
+            int seat = lb.seatAt(rank);
+            sb.append(rank + 1)
                     .append(". ")
-                    .append(p.name)
+                    .append(seats.get(seat).name)
                     .append("  | Skor: ")
-                    .append(getScore(p))
+                    .append(lb.scoreOf(seat))
                     .append("  | Pos: ")
-                    .append(p.position)
+                    .append(lb.positionOf(seat))
                     .append("\n");
-            rank++;
         }
         leaderboardArea.setText(sb.toString());
     }
@@ -307,7 +418,7 @@ public class SnakeLadder extends JFrame {
 
         JComboBox<String>[] selectors = new JComboBox[count];
 
-        PokemonRenderer renderer = new PokemonRenderer(POKEMON_NAMES, POKEMON_FILES, CHARACTER_BASE_PATH);
+        PokemonRenderer renderer = new PokemonRenderer(POKEMON_NAMES);
 
         for (int i = 0; i < count; i++) {
             JLabel lbl = new JLabel("Pemain " + (i + 1) + " Pilih:");
@@ -376,27 +487,12 @@ public class SnakeLadder extends JFrame {
         private String[] displayNames;
         private Map<String, ImageIcon> iconCache = new HashMap<>();
 
-        public PokemonRenderer(String[] displayNames, String[] fileNames, String basePath) {
+        public PokemonRenderer(String[] displayNames) {
             this.displayNames = displayNames;
 
-            for (int i = 0; i < displayNames.length; i++) {
-                String path = basePath + fileNames[i];
-
-                try {
-                    Image image = ImageIO.read(new File(path));
-
-                    if (image != null) {
-                        Image scaledImage = image.getScaledInstance(32, 32, Image.SCALE_SMOOTH);
-                        iconCache.put(displayNames[i], new ImageIcon(scaledImage));
-                    } else {
-                        System.err.println("Gagal memuat ikon Pokémon (Image is NULL): " + path);
-                        iconCache.put(displayNames[i], null);
-                    }
-
-                } catch (IOException e) {
-                    System.err.println("Gagal memuat ikon Pokémon (IOException): " + path);
-                    iconCache.put(displayNames[i], null);
-                }
+            for (String name : displayNames) {
+                BufferedImage image = TokenImageCache.get(name, 32);
+                iconCache.put(name, image != null ? new ImageIcon(image) : null);
             }
         }
 
@@ -472,53 +568,51 @@ public class SnakeLadder extends JFrame {
         };
 
         players.clear();
-        turnQueue.clear();
 
         for (int i = 0; i < nPlayers; i++) {
-            BoardEditor.Player p = new BoardEditor.Player(names.get(i), tokenColors[i]);
-            players.add(p);
-            turnQueue.offer(p);
+            players.add(new BoardEditor.Player(names.get(i), tokenColors[i]));
         }
 
-        board = new BoardEditor.BoardGraph(BOARD_SIZE);
-        dice = new BoardEditor.Dice();
-
-        playerScores.clear();
-        for (BoardEditor.Player p : players) playerScores.put(p, 0);
-
-        initScores();
+        boardFile = BoardFile.load(BoardFile.DEFAULT_FILE, BoardFile.TEXT_FILE);
+        if (boardFile != null && boardFile.size != boardSize) {
+            System.err.println("File papan berisi " + boardFile.size + " node, tidak cocok dengan ukuran papan " + boardSize + ". Memakai posisi default.");
+            boardFile = null;
+            boardFileMismatch = true;
+        }
 
-        currentPlayer = turnQueue.poll();
+        // Shortcut dari file papan dipakai jika ada; rng tetap di-split agar seed lain tidak bergeser
+        SplittableRandom boardRng = rng.split();
+        board = boardFile != null && boardFile.hasLinks()
+                ? boardFile.toBoardGraph()
+                : new BoardEditor.BoardGraph(boardSize, boardRng);
+        engine = new GameEngine(board, players, rng.split());
+        if (boardFile != null && boardFile.hasNodeScores()) engine.setFixedNodeScores(boardFile.getNodeScores());
+        // Shortcut papan ikut tercatat di log replay, jadi id ini hanya label (papan acak juga bisa diputar ulang)
+        String boardId = boardFile != null && boardFile.hasLinks() ? BoardFile.DEFAULT_FILE : "generated";
+        replayRecorder = new ReplayLog.Recorder(engine, boardId, this::saveReplay);
+        renderedLeaderboardVersion = -1;
+        diceAnimRandom = rng.split();
     }
 
     // ================== RESET GAME STATE ==================
 
     private void resetGameState() {
-        if (moveTimer != null && moveTimer.isRunning()) moveTimer.stop();
+        animations.cancel(rollAnimation);
+        animations.cancel(moveAnimation);
 
-        for (BoardEditor.Player p : players) {
-            p.position = 1;
-            p.moveHistory.clear();
-        }
+        boolean switched = switchBoard();
+        if (!switched) engine.reset();
 
-        turnQueue.clear();
-        for (BoardEditor.Player p : players) turnQueue.offer(p);
-        currentPlayer = turnQueue.poll();
-
-        gameOver = false;
         btnRoll.setEnabled(true);
         dicePanel.setDice(0, true);
         lblDiceText.setText("Dadu: -");
         lblDiceText.setForeground(new Color(240, 220, 190));
         lblStatus.setText("Status: Game di-reset.");
 
-        playerScores.clear();
-        for (BoardEditor.Player p : players) playerScores.put(p, 0);
-        initScores();
-
-        historyArea.setText("");
-        appendHistory("Game di-reset. Peta bajak laut 1..64.");
-        appendHistory("Giliran pertama: " + currentPlayer.name + ".");
+        historyLog.clear();
+        appendHistory("Game di-reset. Peta bajak laut 1.." + boardSize + ".");
+        if (switched) appendHistory("Papan: " + currentBoardId + ".");
+        appendHistory("Giliran pertama: " + engine.getCurrentPlayer().name + ".");
 
         updateTurnLabel();
         updateLeaderboard();
@@ -527,6 +621,26 @@ public class SnakeLadder extends JFrame {
         SoundManager.playGameStart();
     }
 
+    /** Berpindah ke papan berikutnya dari library. Mengembalikan false jika papan tidak berganti. */
+    private boolean switchBoard() {
+        if (boardLibrary == null) return false;
+        BoardLibrary.Entry next;
+        try {
+            next = boardLibrary.next(currentBoardId, boardSize);
+        } catch (IOException e) {
+            System.err.println("Gagal membaca library papan: " + e.getMessage());
+            return false;
+        }
+        if (next == null) return false;
+
+        currentBoardId = next.id;
+        replayRecorder.setBoardId(next.id + BoardLibrary.EXTENSION);
+        board = next.graph;
+        engine.setBoard(next.graph, next.nodeScores);
+        boardPanel.setCenters(next.centers);
+        return true;
+    }
+
     // ================== INIT UI ==================
 
     public void initUI() {
@@ -548,7 +662,7 @@ public class SnakeLadder extends JFrame {
         lblTurn.setForeground(new Color(255, 245, 220));
         lblTurn.setFont(new Font("Monospaced", Font.BOLD, 16));
 
-        dicePanel = new DicePanel();
+        dicePanel = new DicePanel(animations);
         dicePanel.setAlignmentX(Component.LEFT_ALIGNMENT);
 
         lblDiceText = new JLabel("Dadu: -");
@@ -578,7 +692,7 @@ public class SnakeLadder extends JFrame {
         btnRoll.setForeground(Color.WHITE);
         btnRoll.setFocusPainted(false);
         btnRoll.setBorder(BorderFactory.createLineBorder(new Color(180, 130, 90), 2));
-        btnRoll.addActionListener(e -> onRollDice());
+        btnRoll.addActionListener(e -> commands.offer(CommandQueue.Type.ROLL, engine.getSequence()));
 
         btnReset = new JButton("Reset Game");
         btnReset.setFont(new Font("Monospaced", Font.BOLD, 13));
@@ -586,7 +700,18 @@ public class SnakeLadder extends JFrame {
         btnReset.setForeground(Color.WHITE);
         btnReset.setFocusPainted(false);
         btnReset.setBorder(BorderFactory.createLineBorder(new Color(190, 120, 90), 2));
-        btnReset.addActionListener(e -> resetGameState());
+        btnReset.addActionListener(e -> commands.offer(CommandQueue.Type.RESET, engine.getSequence()));
+
+        JLabel lblSpeed = new JLabel("Kecepatan:");
+        lblSpeed.setForeground(new Color(240, 220, 190));
+        lblSpeed.setFont(new Font("Monospaced", Font.BOLD, 13));
+
+        speedBox = new JComboBox<>(SpeedMode.values());
+        speedBox.setSelectedItem(speedMode);
+        speedBox.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        speedBox.setMaximumSize(new Dimension(150, 25));
+        speedBox.setAlignmentX(Component.LEFT_ALIGNMENT);
+        speedBox.addActionListener(e -> setSpeedMode((SpeedMode) speedBox.getSelectedItem()));
 
         // ---- SETUP SLIDER VOLUME ----
         JLabel lblVolume = new JLabel("Volume BGM:");
@@ -612,15 +737,17 @@ public class SnakeLadder extends JFrame {
         lblHistory.setForeground(new Color(255, 245, 220));
         lblHistory.setFont(new Font("Monospaced", Font.BOLD, 13));
 
-        historyArea = new JTextArea(15, 25);
-        historyArea.setEditable(false);
-        historyArea.setBackground(new Color(170, 130, 90));
-        historyArea.setForeground(new Color(255, 245, 225));
-        historyArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-        historyArea.setLineWrap(true);
-        historyArea.setWrapStyleWord(true);
-
-        JScrollPane scrollHistory = new JScrollPane(historyArea);
+        // JList dengan tinggi baris tetap: hanya baris yang terlihat yang digambar
+        historyList = new JList<>(historyLog);
+        historyList.setBackground(new Color(170, 130, 90));
+        historyList.setForeground(new Color(255, 245, 225));
+        historyList.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        historyList.setFixedCellHeight(16);
+        // Lebar tetap yang cukup untuk baris terpanjang; sisanya digeser dengan scrollbar horizontal
+        historyList.setPrototypeCellValue("X".repeat(100));
+        historyList.setFocusable(false);
+
+        JScrollPane scrollHistory = new JScrollPane(historyList);
         scrollHistory.setAlignmentX(Component.LEFT_ALIGNMENT);
         scrollHistory.setPreferredSize(new Dimension(340, 260));
 
@@ -643,6 +770,10 @@ public class SnakeLadder extends JFrame {
         controlPanel.add(btnRoll);
         controlPanel.add(Box.createVerticalStrut(5));
         controlPanel.add(btnReset);
+        controlPanel.add(Box.createVerticalStrut(10));
+        controlPanel.add(lblSpeed);
+        controlPanel.add(Box.createVerticalStrut(5));
+        controlPanel.add(speedBox);
 
         // Tambahkan Komponen Slider ke Panel
         controlPanel.add(Box.createVerticalStrut(15));
@@ -659,21 +790,59 @@ public class SnakeLadder extends JFrame {
 
         updateTurnLabel();
         updateLeaderboard();
-        appendHistory("Game dimulai. Peta bajak laut 1..64.");
-        appendHistory("Giliran pertama: " + currentPlayer.name + ".");
+        appendHistory("Game dimulai. Peta bajak laut 1.." + boardSize + ".");
+        appendHistory("Giliran pertama: " + engine.getCurrentPlayer().name + ".");
+
+        engine.addListener(new GameEngine.Listener() {
+            @Override
+            public void onStep(BoardEditor.Player player, int from, int to) {
+                // Mode instan repaint sekali setelah giliran selesai
+                if (speedMode == SpeedMode.INSTANT) return;
+                boardPanel.repaintNode(from);
+                boardPanel.repaintNode(to);
+            }
+
+            @Override
+            public void onTurnFinished(GameEngine.TurnResult result) {
+                if (result.gained > 0) boardPanel.invalidateStaticLayer();
+                // onStep dilewati di mode instan (juga saat animasi berjalan di-skip karena
+                // pindah ke Instan), jadi posisi akhir token harus digambar di sini
+                if (speedMode == SpeedMode.INSTANT) boardPanel.repaint();
+                renderTurnResult(result);
+            }
+
+            @Override
+            public void onReset() {
+                boardPanel.invalidateStaticLayer();
+            }
+        });
     }
 
     private void appendHistory(String text) {
-        historyArea.append(text + "\n");
-        historyArea.setCaretPosition(historyArea.getDocument().getLength());
+        historyLog.add(text);
+        historyList.ensureIndexIsVisible(historyLog.getSize() - 1);
     }
 
     // ================== EVENT: ROLL DICE ==================
 
+    /** Consumer antrean aksi; selalu berjalan di EDT. */
+    private CommandQueue.Status applyCommand(CommandQueue.Command c) {
+        CommandQueue.Status rejected = CommandQueue.reject(engine, c);
+        if (rejected != null) return rejected;
+
+        if (c.type == CommandQueue.Type.RESET) {
+            resetGameState();
+            return CommandQueue.Status.APPLIED;
+        }
+        // Giliran engine baru dimulai setelah animasi dadu, jadi animasi juga dihitung sibuk
+        if (animations.isActive(rollAnimation) || animations.isActive(moveAnimation)) return CommandQueue.Status.BUSY;
+        onRollDice();
+        return CommandQueue.Status.APPLIED;
+    }
+
     private void onRollDice() {
-        if (gameOver) return;
-        if (moveTimer != null && moveTimer.isRunning()) return;
-        if (currentPlayer == null) currentPlayer = turnQueue.poll();
+        if (engine.isGameOver()) return;
+        if (animations.isActive(rollAnimation) || animations.isActive(moveAnimation)) return;
         if (!boardPanel.positionsLoaded) {
             lblStatus.setText("Status: ERROR - Posisi Node Belum Dimuat! Jalankan Editor.");
             return;
@@ -681,118 +850,160 @@ public class SnakeLadder extends JFrame {
 
         btnRoll.setEnabled(false);
 
-        final int[] ticks = {0};
-        final int maxTicks = 10;
+        if (speedMode == SpeedMode.INSTANT) {
+            showDiceRoll(engine.beginTurn());
+            engine.resolveMove();
+            return;
+        }
+
+        rollAnimation.ticks = 0;
+        animations.schedule(rollAnimation, rollIntervalMs);
+    }
+
+    // ================== KECEPATAN ==================
 
-        javax.swing.Timer rollAnimTimer = new javax.swing.Timer(80, null);
-        rollAnimTimer.addActionListener(ev -> {
-            ticks[0]++;
+    public void setSpeedMode(SpeedMode mode) {
+        speedMode = mode;
+        rollIntervalMs = mode.rollIntervalMs;
+        rollTicks = mode.rollTicks;
+        stepIntervalMs = mode.stepIntervalMs;
+        // Instan: animasi dadu yang sedang jalan langsung diselesaikan, yang baru tidak dianimasikan
+        animations.setSkipAnimations(mode == SpeedMode.INSTANT);
+        if (speedBox != null && speedBox.getSelectedItem() != mode) speedBox.setSelectedItem(mode);
+    }
+
+    /**
+     * Kapasitas riwayat di layar dan file spill opsional (null = tanpa file).
+     * Dengan spill, riwayat lengkap ditulis ke file sementara layar hanya menyimpan baris terakhir.
+     */
+    public void configureHistory(int capacity, String spillFile) {
+        if (capacity >= 1) historyLog.setCapacity(capacity);
+        if (spillFile != null && !spillFile.isEmpty()) historyLog.enableSpill(spillFile);
+    }
+
+    /** Folder tempat log replay setiap game yang selesai atau di-reset ditulis; null = tidak ditulis. */
+    public void setReplayDir(String dir) {
+        this.replayDir = dir;
+    }
+
+    private void saveReplay(ReplayLog log) {
+        if (replayDir == null) return;
+        java.nio.file.Path path = java.nio.file.Paths.get(replayDir, "game-" + Long.toHexString(log.gameSeed) + ".slr");
+        try {
+            java.nio.file.Files.createDirectories(path.getParent());
+            log.write(path);
+        } catch (IOException e) {
+            System.err.println("Gagal menulis replay " + path + ": " + e.getMessage());
+        }
+    }
+
+    /** Jika diset, setiap reset berpindah ke papan berikutnya (ukuran sama) dari library. */
+    public void setBoardLibrary(BoardLibrary library) {
+        this.boardLibrary = library;
+        if (switchBoard()) {
+            appendHistory("Papan: " + currentBoardId + ".");
+            updateLeaderboard();
+            boardPanel.repaint();
+        }
+    }
+
+    /** Batas langkah mundur per pemain (0 = tidak terbatas). */
+    public void setMoveHistoryDepth(int maxDepth) {
+        engine.setMoveHistoryDepth(Math.max(0, maxDepth));
+    }
+
+    /** Mengganti interval lempar dadu dan langkah token (ms). Nilai negatif = tidak diubah. */
+    public void setAnimationIntervals(int rollMs, int stepMs) {
+        if (rollMs >= 0) rollIntervalMs = rollMs;
+        if (stepMs >= 0) stepIntervalMs = stepMs;
+    }
+
+    /** Dadu palsu berganti-ganti beberapa kali sebelum lemparan asli. */
+    private class RollAnimation implements AnimationScheduler.Animation {
+        private int ticks;
+
+        @Override
+        public boolean tick() {
+            if (ticks >= rollTicks) return false;
+            ticks++;
             int fakeVal = diceAnimRandom.nextInt(6) + 1;
             boolean fakePos = diceAnimRandom.nextBoolean();
             dicePanel.setDice(fakeVal, fakePos);
+            return ticks < rollTicks;
+        }
 
-            if (ticks[0] >= maxTicks) {
-                rollAnimTimer.stop();
-                doRealDiceRoll();
-            }
-        });
-        rollAnimTimer.start();
+        @Override
+        public void finish() {
+            doRealDiceRoll();
+        }
     }
 
     private void doRealDiceRoll() {
-        int diceNumber = dice.rollNumber();
-        boolean positive = dice.isPositive();
-
-        currentDiceNumber = diceNumber;
-        currentDicePositive = positive;
+        showDiceRoll(engine.beginTurn());
+        startAnimatedMove();
+    }
 
-        useShortestThisRoll = positive && isPrime(currentPlayer.position);
+    private void showDiceRoll(GameEngine.TurnResult turn) {
+        boolean positive = turn.positive;
 
         String warnaText = positive ? "HIJAU (maju)" : "MERAH (mundur)";
-        lblDiceText.setText("Dadu: " + diceNumber + " | " + warnaText +
-                (useShortestThisRoll ? " | PRIME BOOST: Shortest Path" : ""));
+        lblDiceText.setText("Dadu: " + turn.diceNumber + " | " + warnaText +
+                (turn.primeBoost ? " | PRIME BOOST: Shortest Path" : ""));
         lblDiceText.setForeground(positive ? new Color(210, 250, 200) : new Color(255, 190, 170));
 
         SoundManager.playDice();
-        dicePanel.setDice(diceNumber, positive);
-
-        startAnimatedMove(diceNumber, positive);
+        dicePanel.setDice(turn.diceNumber, positive);
     }
 
     // ================== ANIMASI GERAK ==================
 
-    private void startAnimatedMove(int diceNumber, boolean positive) {
-        stepsLeft = diceNumber;
-        movePositive = positive;
-        moveInitialPos = currentPlayer.position;
-
-        moveTimer = new javax.swing.Timer(220, e -> {
-            if (stepsLeft <= 0) {
-                moveTimer.stop();
-                finishMoveAfterAnimation();
-                return;
-            }
-
-            if (movePositive) {
-                if (currentPlayer.position >= BOARD_SIZE) {
-                    stepsLeft = 0;
-                } else {
-                    stepForward(board, currentPlayer, useShortestThisRoll);
-                    stepsLeft--;
-                }
-            } else {
-                if (currentPlayer.moveHistory.isEmpty()) {
-                    stepsLeft = 0;
-                } else {
-                    stepBackward(currentPlayer);
-                    stepsLeft--;
-                }
-            }
+    private void startAnimatedMove() {
+        animations.schedule(moveAnimation, stepIntervalMs);
+    }
 
-            boardPanel.repaint();
-        });
+    /** Satu langkah engine per tick; giliran diselesaikan saat tidak ada langkah lagi. */
+    private class MoveAnimation implements AnimationScheduler.Animation {
+        @Override
+        public boolean tick() {
+            return engine.step();
+        }
 
-        moveTimer.start();
+        @Override
+        public void finish() {
+            engine.finishTurn();
+        }
     }
 
-    private void finishMoveAfterAnimation() {
-        int posAfterMove = currentPlayer.position;
+    private void renderTurnResult(GameEngine.TurnResult r) {
+        BoardEditor.Player player = r.player;
 
         StringBuilder historyText = new StringBuilder();
-        historyText.append(currentPlayer.name)
+        historyText.append(player.name)
                 .append(" melempar dadu: ")
-                .append(currentDiceNumber)
-                .append(" (").append(currentDicePositive ? "Hijau" : "Merah").append(")")
-                .append(useShortestThisRoll ? " | PRIME BOOST aktif." : "")
+                .append(r.diceNumber)
+                .append(" (").append(r.positive ? "Hijau" : "Merah").append(")")
+                .append(r.primeBoost ? " | PRIME BOOST aktif." : "")
                 .append(". ");
 
         String status;
 
-        if (movePositive) {
-            status = currentPlayer.name + " maju dari " + moveInitialPos + " ke " + posAfterMove;
+        if (r.positive) {
+            status = player.name + " maju dari " + r.startPos + " ke " + r.endPos;
         } else {
-            if (posAfterMove == moveInitialPos) {
-                status = currentPlayer.name + " tidak bisa mundur lagi (stack kosong).";
+            if (r.endPos == r.startPos) {
+                status = player.name + " tidak bisa mundur lagi (stack kosong).";
             } else {
-                status = currentPlayer.name + " mundur dari " + moveInitialPos + " ke " + posAfterMove;
+                status = player.name + " mundur dari " + r.startPos + " ke " + r.endPos;
             }
         }
 
-        int finalPos = currentPlayer.position;
-        boolean gotStar = isStarPosition(finalPos);
-
-        if (!nodeClaimed[finalPos] && nodeScores[finalPos] > 0) {
-            nodeClaimed[finalPos] = true;
-            int gained = nodeScores[finalPos];
-            int newTotal = getScore(currentPlayer) + gained;
-            playerScores.put(currentPlayer, newTotal);
-
-            String scoreMsg = " | SCORE: +" + gained + " (total " + newTotal + ")";
+        if (r.gained > 0) {
+            String scoreMsg = " | SCORE: +" + r.gained + " (total " + r.totalScore + ")";
             status += scoreMsg;
             historyText.append(scoreMsg);
         }
 
-        if (gotStar && finalPos < BOARD_SIZE) {
+        if (r.bonusTurn) {
             status += " ★ BONUS! Posisi bintang (kelipatan 5), dapat giliran lagi.";
         }
 
@@ -800,61 +1011,38 @@ public class SnakeLadder extends JFrame {
         historyText.append(". ");
         appendHistory(historyText.toString());
 
-        if (finalPos >= BOARD_SIZE) {
-            gameOver = true;
-            lblStatus.setText("Status: " + currentPlayer.name + " MENANG!");
-            appendHistory("🎉 " + currentPlayer.name + " MENANG! Mencapai node " + finalPos + ".");
+        if (r.winner) {
+            lblStatus.setText("Status: " + player.name + " MENANG!");
+            appendHistory("🎉 " + player.name + " MENANG! Mencapai node " + r.endPos + ".");
 
             String scoreBoard = buildScoreBoardText();
 
             SoundManager.stopBGM();
             SoundManager.playWinner();
 
-            showEndGameDialog(currentPlayer.name, scoreBoard);
+            showEndGameDialog(player.name, scoreBoard);
             btnRoll.setEnabled(false);
         } else {
-            if (gotStar && finalPos < BOARD_SIZE) {
-                appendHistory(currentPlayer.name + " mendapat BONUS TURN karena di posisi bintang!");
-                btnRoll.setEnabled(true);
+            if (r.bonusTurn) {
+                appendHistory(player.name + " mendapat BONUS TURN karena di posisi bintang!");
             } else {
-                turnQueue.offer(currentPlayer);
-                currentPlayer = turnQueue.poll();
-                appendHistory("Giliran berikutnya: " + currentPlayer.name + ".");
-                btnRoll.setEnabled(true);
+                appendHistory("Giliran berikutnya: " + r.nextPlayer.name + ".");
             }
+            btnRoll.setEnabled(true);
         }
 
         updateTurnLabel();
         updateLeaderboard();
-        boardPanel.repaint();
-    }
-
-    private int stepForward(BoardEditor.BoardGraph board, BoardEditor.Player player, boolean useShortest) {
-        int pos = player.position;
-        if (pos >= board.size) return pos;
-        player.moveHistory.push(pos);
-
-        int newPos = useShortest ? board.getNextOnShortestPath(pos) : board.getNextForward(pos);
-        if (newPos > board.size) newPos = board.size;
-        if (newPos <= 0) newPos = Math.min(board.size, pos + 1);
-
-        player.position = newPos;
-        return newPos;
-    }
-
-    private int stepBackward(BoardEditor.Player player) {
-        if (player.moveHistory.isEmpty()) return player.position;
-        int newPos = player.moveHistory.pop();
-        player.position = newPos;
-        return newPos;
+        if (r.gained > 0) boardPanel.repaintNode(r.endPos);
     }
 
     private void updateTurnLabel() {
-        if (currentPlayer != null && !gameOver) {
+        BoardEditor.Player currentPlayer = engine.getCurrentPlayer();
+        if (currentPlayer != null && !engine.isGameOver()) {
             lblTurn.setText("Giliran: " + currentPlayer.name +
                     "  (Posisi: " + currentPlayer.position +
                     ", Skor: " + getScore(currentPlayer) + ")");
-        } else if (gameOver) {
+        } else if (engine.isGameOver()) {
             lblTurn.setText("Game selesai.");
         } else {
             lblTurn.setText("Menunggu giliran...");
@@ -869,6 +1057,14 @@ public class SnakeLadder extends JFrame {
         private boolean positionsLoaded = false;
         private Image backgroundImage;
         private final int nodeR = 10;
+        private final int tokenR = nodeR + 2;
+        private final int tokenOffset = Math.max(3, tokenR / 2);
+        private final int tokenSize = (nodeR * 2) + 6;
+
+        // Layer statis (background, jalur, shortcut, node, skor, bintang, prima, START/FINISH)
+        // digambar sekali ke image; tiap frame hanya token yang digambar di atasnya.
+        private BufferedImage staticLayer;
+        private boolean staticLayerDirty = true;
 
         BoardPanel() {
             setBackground(new Color(70, 40, 20));
@@ -878,7 +1074,7 @@ public class SnakeLadder extends JFrame {
             loadBackgroundImage("Background Board/bgboard.png");
 
             if (!loadNodePositions()) {
-                System.err.println("Gagal memuat posisi node dari " + POSITION_FILE + ". Jalur tidak bisa ditampilkan.");
+                System.err.println("Gagal memuat posisi node. Jalur tidak bisa ditampilkan.");
             }
         }
 
@@ -893,37 +1089,49 @@ public class SnakeLadder extends JFrame {
         }
 
         private boolean loadNodePositions() {
-            File file = new File(POSITION_FILE);
-            if (!file.exists()) {
+            // File papan sudah dibaca (dan dicek ukurannya) di initGame
+            if (boardFile != null) {
+                centers = boardFile.getCenters();
+            } else if (boardFileMismatch) {
+                // File disimpan untuk ukuran papan lain: pakai jalur default
+                centers = BoardEditor.generateDefaultCenters(boardSize, BOARD_DIM.width, BOARD_DIM.height);
+            } else {
                 positionsLoaded = false;
                 return false;
             }
+            positionsLoaded = true;
+            return true;
+        }
 
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                Point[] loadedCenters = new Point[BOARD_SIZE + 1];
-                loadedCenters[0] = new Point(0, 0);
-                String line;
-                int i = 1;
-                while ((line = reader.readLine()) != null && i <= BOARD_SIZE) {
-                    String[] parts = line.split(",");
-                    if (parts.length == 2) {
-                        loadedCenters[i] = new Point(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
-                        i++;
-                    }
-                }
-                if (i > BOARD_SIZE) {
-                    centers = loadedCenters;
-                    positionsLoaded = true;
-                    return true;
-                }
-            } catch (Exception e) {
-                positionsLoaded = false;
-                return false;
-            }
-            positionsLoaded = false;
-            return false;
+
+        void setCenters(Point[] newCenters) {
+            centers = newCenters;
+            positionsLoaded = true;
+            invalidateStaticLayer();
+        }
+
+        /** Dipanggil saat papan berganti atau ada skor node yang diklaim. */
+        void invalidateStaticLayer() {
+            staticLayerDirty = true;
         }
 
+        /**
+         * Repaint hanya area di sekitar satu node: semua slot token pemain di node itu
+         * ditambah label skornya. Dipakai untuk langkah token dan klaim skor.
+         */
+        void repaintNode(int pos) {
+            if (centers == null || pos < 1 || pos > boardSize) {
+                repaint();
+                return;
+            }
+            Point c = centers[pos];
+            int half = tokenOffset + tokenSize / 2 + 2;
+            int left = Math.min(c.x - half, c.x - nodeR);
+            int right = Math.max(c.x + half, c.x - nodeR + 30);
+            int top = c.y - half;
+            int bottom = Math.max(c.y + half, c.y + nodeR + 13);
+            repaint(left, top, right - left, bottom - top);
+        }
 
         @Override
         protected void paintComponent(Graphics g) {
@@ -933,16 +1141,13 @@ public class SnakeLadder extends JFrame {
 
             int w = getWidth();
             int h = getHeight();
-
-            if (backgroundImage != null) {
-                g2.drawImage(backgroundImage, 0, 0, w, h, this);
-            } else {
-                Color seaColor = new Color(20, 70, 110);
-                g2.setColor(seaColor);
-                g2.fillRect(0, 0, w, h);
+            if (w <= 0 || h <= 0) {
+                g2.dispose();
+                return;
             }
 
             if (!positionsLoaded || centers == null) {
+                drawBackground(g2, w, h);
                 g2.setColor(Color.RED);
                 g2.setFont(new Font("Monospaced", Font.BOLD, 18));
                 g2.drawString("ERROR: Posisi Node Belum Dimuat!", 50, h / 2);
@@ -951,11 +1156,79 @@ public class SnakeLadder extends JFrame {
                 return;
             }
 
+            if (staticLayerDirty || staticLayer == null
+                    || staticLayer.getWidth() != w || staticLayer.getHeight() != h) {
+                renderStaticLayer(w, h);
+            }
+            g2.drawImage(staticLayer, 0, 0, null);
+
+            int offset = tokenOffset;
+
+            for (BoardEditor.Player p : players) {
+                int pos = Math.max(1, Math.min(boardSize, p.position));
+                Point c = centers[pos];
+
+                Image playerIcon = TokenImageCache.get(p.name, tokenSize);
+
+                int idx = players.indexOf(p);
+                int dx = (idx % 2) * offset * 2 - offset;
+                int dy = (idx / 2) * offset * 2 - offset;
+
+                int cx = c.x + dx;
+                int cy = c.y + dy;
+
+                int drawX = cx - tokenSize / 2;
+                int drawY = cy - tokenSize / 2;
+
+                if (playerIcon != null) {
+                    g2.drawImage(playerIcon, drawX, drawY, tokenSize, tokenSize, this);
+
+                    g2.setColor(p.tokenColor);
+                    g2.setStroke(new BasicStroke(2f));
+                    g2.drawOval(drawX, drawY, tokenSize, tokenSize);
+
+                } else {
+                    g2.setColor(p.tokenColor);
+                    g2.fillOval(cx - tokenR, cy - tokenR, 2 * tokenR, 2 * tokenR);
+
+                    g2.setColor(Color.BLACK);
+                    g2.setStroke(new BasicStroke(1.5f));
+                    g2.drawOval(cx - tokenR, cy - tokenR, 2 * tokenR, 2 * tokenR);
+                }
+            }
+
+            g2.dispose();
+        }
+
+        private void drawBackground(Graphics2D g2, int w, int h) {
+            if (backgroundImage != null) {
+                g2.drawImage(backgroundImage, 0, 0, w, h, this);
+            } else {
+                Color seaColor = new Color(20, 70, 110);
+                g2.setColor(seaColor);
+                g2.fillRect(0, 0, w, h);
+            }
+        }
+
+        private void renderStaticLayer(int w, int h) {
+            if (staticLayer == null || staticLayer.getWidth() != w || staticLayer.getHeight() != h) {
+                GraphicsConfiguration gc = getGraphicsConfiguration();
+                staticLayer = gc != null
+                        ? gc.createCompatibleImage(w, h)
+                        : new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            }
+            staticLayerDirty = false;
+
+            Graphics2D g2 = staticLayer.createGraphics();
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            drawBackground(g2, w, h);
+
             Stroke oldStroke = g2.getStroke();
             g2.setColor(new Color(245, 245, 245, 220));
             g2.setStroke(new BasicStroke(3f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND,
                     1f, new float[]{8f, 10f}, 0f));
-            for (int i = 1; i < BOARD_SIZE; i++) {
+            for (int i = 1; i < boardSize; i++) {
                 Point a = centers[i];
                 Point b = centers[i + 1];
                 g2.drawLine(a.x, a.y, b.x, b.y);
@@ -979,7 +1252,7 @@ public class SnakeLadder extends JFrame {
             Font numFont = new Font("Monospaced", Font.BOLD, 11);
             Font scoreFont = new Font("Monospaced", Font.PLAIN, 9);
 
-            for (int pos = 1; pos <= BOARD_SIZE; pos++) {
+            for (int pos = 1; pos <= boardSize; pos++) {
                 Point c = centers[pos];
                 int nx = c.x;
                 int ny = c.y;
@@ -1002,8 +1275,8 @@ public class SnakeLadder extends JFrame {
                 int th = fm.getAscent();
                 g2.drawString(label, nx - tw / 2, ny + th / 3);
 
-                int nodeScore = nodeScores[pos];
-                if (nodeScore > 0 && !nodeClaimed[pos]) {
+                int nodeScore = engine.getNodeScore(pos);
+                if (nodeScore > 0 && !engine.isNodeClaimed(pos)) {
                     g2.setFont(scoreFont);
                     g2.setColor(new Color(20, 70, 30));
                     String sText = "+" + nodeScore;
@@ -1020,72 +1293,19 @@ public class SnakeLadder extends JFrame {
                 }
             }
 
-            int tokenR = nodeR + 2;
-            int offset = Math.max(3, tokenR / 2);
-            int tokenSize = (nodeR * 2) + 6;
-
-            for (BoardEditor.Player p : players) {
-                int pos = Math.max(1, Math.min(BOARD_SIZE, p.position));
-                Point c = centers[pos];
-
-                Image playerIcon = getPlayerTokenImage(p.name, tokenSize);
-
-                int idx = players.indexOf(p);
-                int dx = (idx % 2) * offset * 2 - offset;
-                int dy = (idx / 2) * offset * 2 - offset;
-
-                int cx = c.x + dx;
-                int cy = c.y + dy;
-
-                int drawX = cx - tokenSize / 2;
-                int drawY = cy - tokenSize / 2;
-
-                if (playerIcon != null) {
-                    g2.drawImage(playerIcon, drawX, drawY, tokenSize, tokenSize, this);
-
-                    g2.setColor(p.tokenColor);
-                    g2.setStroke(new BasicStroke(2f));
-                    g2.drawOval(drawX, drawY, tokenSize, tokenSize);
-
-                } else {
-                    g2.setColor(p.tokenColor);
-                    g2.fillOval(cx - tokenR, cy - tokenR, 2 * tokenR, 2 * tokenR);
-
-                    g2.setColor(Color.BLACK);
-                    g2.setStroke(new BasicStroke(1.5f));
-                    g2.drawOval(cx - tokenR, cy - tokenR, 2 * tokenR, 2 * tokenR);
-                }
-            }
-
             g2.setFont(new Font("Monospaced", Font.BOLD, 14));
             g2.setColor(new Color(60, 35, 20));
             Point startP = centers[1];
-            Point endP = centers[BOARD_SIZE];
+            Point endP = centers[boardSize];
 
             g2.drawString("START", startP.x - 20, startP.y + nodeR + 20);
 
             drawStar(g2, endP.x, endP.y - 15, 15);
             g2.drawString("FINISH", endP.x - 25, endP.y + nodeR + 20);
 
-
             g2.dispose();
         }
 
-        private Image getPlayerTokenImage(String name, int size) {
-            for(int i = 0; i < POKEMON_NAMES.length; i++){
-                if(POKEMON_NAMES[i].equals(name)){
-                    String path = CHARACTER_BASE_PATH + POKEMON_FILES[i];
-                    try {
-                        Image image = ImageIO.read(new File(path));
-                        return image.getScaledInstance(size, size, Image.SCALE_SMOOTH);
-                    } catch (IOException e) {
-                        return null;
-                    }
-                }
-            }
-            return null;
-        }
-
         private void drawStar(Graphics2D g2, int cx, int cy, int r) {
             g2.setColor(new Color(255, 215, 120));
             int points = 10;
@@ -1132,10 +1352,42 @@ public class SnakeLadder extends JFrame {
 
         private double shakeOffset = 0;
         private double scale = 1.0;
-        private javax.swing.Timer shakeTimer;
-        private javax.swing.Timer bounceTimer;
 
-        DicePanel() {
+        private static final int SHAKE_TICKS = 9; // +-280 ms pada 30 ms
+        private int shakeTicks;
+
+        private final AnimationScheduler animations;
+        private final AnimationScheduler.Animation shake = new AnimationScheduler.Animation() {
+            @Override
+            public boolean tick() {
+                if (shakeTicks++ >= SHAKE_TICKS) return false;
+                Rectangle before = dieBounds();
+                shakeOffset = (Math.random() - 0.5) * 8;
+                repaintDie(before);
+                return true;
+            }
+
+            @Override
+            public void finish() {
+                Rectangle before = dieBounds();
+                shakeOffset = 0;
+                repaintDie(before);
+                startBounce();
+            }
+        };
+        private final AnimationScheduler.Animation bounce = new AnimationScheduler.Animation() {
+            @Override
+            public boolean tick() {
+                Rectangle before = dieBounds();
+                scale -= 0.07;
+                if (scale <= 1.0) scale = 1.0;
+                repaintDie(before);
+                return scale > 1.0;
+            }
+        };
+
+        DicePanel(AnimationScheduler animations) {
+            this.animations = animations;
             setPreferredSize(new Dimension(60, 60));
             setBackground(new Color(110, 70, 40));
         }
@@ -1143,43 +1395,45 @@ public class SnakeLadder extends JFrame {
         void setDice(int value, boolean positive) {
             this.value = value;
             this.positive = positive;
+            repaintDie(dieBounds());
             startShake();
         }
 
+        /** Kotak dadu (termasuk bayangan) dengan shake dan scale saat ini. */
+        private Rectangle dieBounds() {
+            int w = getWidth();
+            int h = getHeight();
+            int size = (int) ((Math.min(w, h) - 14) * scale);
+            int x = (w - size) / 2 + (int) shakeOffset;
+            int y = (h - size) / 2;
+            return new Rectangle(x - 1, y - 1, size + 6, size + 8);
+        }
+
+        /** Repaint gabungan posisi dadu lama dan baru saja, bukan seluruh panel. */
+        private void repaintDie(Rectangle before) {
+            Rectangle dirty = before.union(dieBounds());
+            repaint(dirty.x, dirty.y, dirty.width, dirty.height);
+        }
+
         private void startShake() {
-            if (shakeTimer != null && shakeTimer.isRunning()) shakeTimer.stop();
-            if (bounceTimer != null && bounceTimer.isRunning()) bounceTimer.stop();
+            animations.cancel(shake);
+            animations.cancel(bounce);
 
+            Rectangle before = dieBounds();
             shakeOffset = 0;
+            scale = 1.0;
+            shakeTicks = 0;
+            repaintDie(before);
 
-            shakeTimer = new javax.swing.Timer(30, e -> {
-                shakeOffset = (Math.random() - 0.5) * 8;
-                repaint();
-            });
-            shakeTimer.start();
-
-            javax.swing.Timer stopShake = new javax.swing.Timer(280, e -> {
-                shakeTimer.stop();
-                shakeOffset = 0;
-                startBounce();
-            });
-            stopShake.setRepeats(false);
-            stopShake.start();
+            animations.schedule(shake, 30);
         }
 
         private void startBounce() {
-            if (bounceTimer != null && bounceTimer.isRunning()) bounceTimer.stop();
+            Rectangle start = dieBounds();
             scale = 1.4;
+            repaintDie(start);
 
-            bounceTimer = new javax.swing.Timer(30, e -> {
-                scale -= 0.07;
-                if (scale <= 1.0) {
-                    scale = 1.0;
-                    bounceTimer.stop();
-                }
-                repaint();
-            });
-            bounceTimer.start();
+            animations.schedule(bounce, 30);
         }
 
         @Override
@@ -0,0 +1,547 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * WinProbabilityCalculator - Peluang menang tiap kursi dihitung lewat rantai Markov,
+ * tanpa simulasi.
+ *
+ * Gerak satu pemain hanya bergantung pada dadunya sendiri dan stack langkahnya
+ * sendiri (skor node tidak memengaruhi gerak). Karena itu cukup satu rantai untuk
+ * satu pemain, lalu hasilnya digabung untuk n kursi. State rantai adalah node trie
+ * stack (parent, posisi), dengan parent = state sebelum langkah maju terakhir.
+ * Maju berarti turun ke anak dan dadu merah berarti naik ke parent, jadi isi stack
+ * tidak disimpan per state. Trie dibangun malas, hanya untuk state yang memang
+ * punya peluang.
+ *
+ * Satu "ronde" pemain = satu giliran biasa plus semua bonus turn bintang yang
+ * mengikutinya. Misalkan S(r) = peluang pemain sudah finish dalam r ronde dan
+ * f(r) = S(r) - S(r-1). Kursi i menang dengan peluang
+ *
+ *   P_i = sum_r f(r) * (1 - S(r))^i * (1 - S(r-1))^(n-1-i)
+ *
+ * karena di ronde r kursi sebelum i sudah main, sedangkan kursi sesudahnya belum.
+ *
+ * Satu giliran dihitung sebagai perkalian matriks sparse x vektor. Jika state aktif
+ * banyak, perkalian dibagi ke beberapa thread dan tiap potongan menulis ke array
+ * parsialnya sendiri.
+ *
+ * Jika stack langkah dibatasi (--undo-depth, {@link GameEngine#setMoveHistoryDepth}),
+ * jumlah state terbatas dan hasilnya eksak. Dengan stack tidak terbatas, papan yang
+ * PRIME BOOST-nya mengarah ke node bernomor lebih kecil membuat riwayat bisa
+ * berputar tanpa batas. Pada papan seperti itu state dengan massa sangat kecil
+ * dibuang, dan jumlah state dibatasi maxStates. Semua massa yang tidak terhitung
+ * dilaporkan sebagai residual.
+ *
+ * Contoh: java WinProbabilityCalculator --size=64 --players=4 --seed=7 --candidates=20
+ *         java WinProbabilityCalculator --board=board.slb --players=3 --undo-depth=8
+ */
+public class WinProbabilityCalculator {
+
+    public static final double DEFAULT_TOLERANCE = 1e-6;
+    public static final int DEFAULT_MAX_ROUNDS = 100_000;
+    public static final int DEFAULT_MAX_STATES = 1 << 20;
+
+    private static final int DICE_SIDES = 6;
+    private static final int SLOTS = 2 * DICE_SIDES;           // (dadu 1..6) x (maju, mundur)
+    private static final double P_FORWARD = 0.7 / DICE_SIDES;
+    private static final double P_BACKWARD = 0.3 / DICE_SIDES;
+    private static final int FINISHED = -1;
+    private static final int UNKNOWN = -2;
+    private static final int LOST = -3;                        // state baru ditolak karena maxStates
+    // Di bawah jumlah word bitmap ini (64 state per word) satu giliran dihitung serial
+    private static final int PARALLEL_WORDS = 1 << 10;
+    // State (dan sisa bonus turn beruntun) dengan massa di bawah toleransi * faktor ini dibuang
+    private static final double PRUNE_FACTOR = 1e-6;
+
+    private final BoardEditor.BoardGraph board;
+    private final int[] nextHop;
+    private final int historyDepth;
+    private final int maxStates;
+    private double pruneMass;
+    // Massa yang dibuang (terlalu kecil atau melewati maxStates) sejak distribusi terakhir dimulai
+    private double pruned;
+
+    // --------- TRIE STATE (index = id state) -----------
+    private int stateCount = 0;
+    private int[] parent = new int[1024];
+    private int[] pos = new int[1024];
+    private int[] depth = new int[1024];
+    // Paling banyak dua anak berbeda per state: langkah biasa dan langkah PRIME BOOST
+    private int[] childA = new int[1024];
+    private int[] childB = new int[1024];
+    // Hanya untuk stack terbatas: state yang sama tanpa elemen stack terbawah
+    private int[] tail = new int[1024];
+    // Hanya untuk stack terbatas: state dengan stack kosong per posisi
+    private final int[] rootAt;
+    // dest[s * SLOTS + slot] = state setelah satu giliran (FINISHED / UNKNOWN / LOST)
+    private int[] dest = new int[1024 * SLOTS];
+
+    public WinProbabilityCalculator(BoardEditor.BoardGraph board) {
+        this(board, IntStack.UNBOUNDED, DEFAULT_MAX_STATES);
+    }
+
+    /** historyDepth sama dengan {@link GameEngine#setMoveHistoryDepth}: 0 = tidak terbatas. */
+    public WinProbabilityCalculator(BoardEditor.BoardGraph board, int historyDepth, int maxStates) {
+        if (historyDepth < 0) throw new IllegalArgumentException("historyDepth tidak boleh negatif: " + historyDepth);
+        if (maxStates < 1) throw new IllegalArgumentException("maxStates minimal 1, diberikan: " + maxStates);
+        this.board = board;
+        this.nextHop = board.buildNextHopTable();
+        this.historyDepth = historyDepth;
+        this.maxStates = maxStates;
+        this.rootAt = new int[board.size + 1];
+        Arrays.fill(rootAt, -1);
+        Arrays.fill(dest, UNKNOWN);
+        rootAt[1] = newState(-1, 1, 0);
+    }
+
+    public int getStateCount() { return stateCount; }
+
+    // ================== HASIL ==================
+
+    public static class Result {
+        public final int playerCount;
+        public final double[] seatWin;
+        // roundFinish[r] = peluang satu pemain finish tepat di ronde r (index 0 tidak dipakai)
+        public final double[] roundFinish;
+        // turnFinish[t] = peluang satu pemain finish tepat di giliran ke-t miliknya (termasuk bonus turn)
+        public final double[] turnFinish;
+        // gameRounds[r] = peluang game berakhir di ronde r
+        public final double[] gameRounds;
+        // Massa satu pemain yang tidak terhitung; batas atas kesalahan peluang tiap kursi
+        public final double residual;
+        public final int states;
+
+        Result(int playerCount, double[] seatWin, double[] roundFinish, double[] turnFinish,
+               double[] gameRounds, double residual, int states) {
+            this.playerCount = playerCount;
+            this.seatWin = seatWin;
+            this.roundFinish = roundFinish;
+            this.turnFinish = turnFinish;
+            this.gameRounds = gameRounds;
+            this.residual = residual;
+            this.states = states;
+        }
+
+        public double meanGameRounds() { return mean(gameRounds); }
+        public double meanPlayerTurns() { return mean(turnFinish); }
+
+        private static double mean(double[] dist) {
+            double sum = 0, mass = 0;
+            for (int i = 1; i < dist.length; i++) {
+                sum += i * dist[i];
+                mass += dist[i];
+            }
+            return mass == 0 ? 0 : sum / mass;
+        }
+
+        /** Selisih peluang menang kursi terbaik dan terburuk; 0 = papan adil. */
+        public double seatImbalance() {
+            double max = 0, min = 1;
+            for (double p : seatWin) {
+                max = Math.max(max, p);
+                min = Math.min(min, p);
+            }
+            return max - min;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < playerCount; i++) {
+                sb.append(String.format("Kursi %d : menang %.4f%%%n", i + 1, seatWin[i] * 100));
+            }
+            sb.append(String.format("Panjang game: rata-rata %.3f ronde | giliran per pemain sampai finish: %.3f%n",
+                    meanGameRounds(), meanPlayerTurns()));
+            sb.append(String.format("State: %d | residual %.2e", states, residual));
+            return sb.toString();
+        }
+    }
+
+    // ================== PERHITUNGAN ==================
+
+    public Result compute(int playerCount) {
+        return compute(playerCount, DEFAULT_TOLERANCE, DEFAULT_MAX_ROUNDS, ForkJoinPool.commonPool());
+    }
+
+    /** Trie dipakai ulang antar pemanggilan, jadi menghitung ulang untuk jumlah pemain lain murah. */
+    public synchronized Result compute(int playerCount, double tolerance, int maxRounds, ForkJoinPool pool) {
+        if (playerCount < 1) throw new IllegalArgumentException("Minimal satu pemain.");
+        if (tolerance <= 0 || maxRounds < 1) throw new IllegalArgumentException("Toleransi harus > 0 dan maxRounds minimal 1.");
+
+        pruneMass = tolerance * PRUNE_FACTOR;
+        double[] roundFinish = roundDistribution(tolerance, maxRounds, pool);
+        double[] turnFinish = turnDistribution(tolerance, maxRounds, pool);
+
+        int rounds = roundFinish.length - 1;
+        double[] seatWin = new double[playerCount];
+        double[] gameRounds = new double[rounds + 1];
+        double before = 0; // S(r-1)
+        for (int r = 1; r <= rounds; r++) {
+            double after = before + roundFinish[r]; // S(r)
+            for (int i = 0; i < playerCount; i++) {
+                double p = roundFinish[r] * Math.pow(1 - after, i) * Math.pow(1 - before, playerCount - 1 - i);
+                seatWin[i] += p;
+                gameRounds[r] += p;
+            }
+            before = after;
+        }
+        return new Result(playerCount, seatWin, roundFinish, turnFinish, gameRounds, Math.max(0, 1 - before), stateCount);
+    }
+
+    /** Distribusi ronde sampai finish untuk satu pemain; bonus turn masuk ke ronde yang sama. */
+    private double[] roundDistribution(double tolerance, int maxRounds, ForkJoinPool pool) {
+        double[] finish = new double[16];
+        Dist start = new Dist(), end = new Dist(), next = new Dist(), spare = new Dist();
+        start.add(0, 1);
+        pruned = 0;
+        double finished = 0, remaining = 1;
+        int r = 0;
+        while (remaining > tolerance && r < maxRounds) {
+            r++;
+            end.clear();
+            double finishedThisRound = 0;
+            Dist cur = start;
+            // Bonus turn: state yang berakhir di bintang langsung main lagi di ronde yang sama
+            while (true) {
+                finishedThisRound += applyTurn(cur, next, pool);
+                spare.clear();
+                double star = 0;
+                long[] bits = next.bits;
+                for (int w = 0; w < bits.length; w++) {
+                    for (long word = bits[w]; word != 0; word &= word - 1) {
+                        int s = (w << 6) + Long.numberOfTrailingZeros(word);
+                        double m = next.mass[s];
+                        if (GameEngine.isStarPosition(pos[s])) {
+                            spare.add(s, m);
+                            star += m;
+                        } else {
+                            end.add(s, m);
+                        }
+                    }
+                }
+                if (star < pruneMass) {
+                    pruned += star;
+                    break;
+                }
+                Dist t = cur;
+                cur = spare;
+                spare = t;
+            }
+            if (r >= finish.length) finish = Arrays.copyOf(finish, finish.length * 2);
+            finish[r] = finishedThisRound;
+            finished += finishedThisRound;
+            remaining = 1 - finished - pruned;
+
+            // Empat buffer dipakai bergantian: akhir ronde ini menjadi awal ronde berikutnya
+            spare = cur == start ? spare : cur;
+            Dist t = start;
+            start = end;
+            end = t;
+        }
+        return Arrays.copyOf(finish, r + 1);
+    }
+
+    /** Distribusi jumlah giliran (termasuk bonus turn) sampai finish untuk satu pemain. */
+    private double[] turnDistribution(double tolerance, int maxRounds, ForkJoinPool pool) {
+        double[] finish = new double[16];
+        Dist v = new Dist(), next = new Dist();
+        v.add(0, 1);
+        pruned = 0;
+        double finished = 0, remaining = 1;
+        int t = 0;
+        while (remaining > tolerance && t < maxRounds) {
+            t++;
+            if (t >= finish.length) finish = Arrays.copyOf(finish, finish.length * 2);
+            finish[t] = applyTurn(v, next, pool);
+            finished += finish[t];
+            remaining = 1 - finished - pruned;
+            Dist tmp = v;
+            v = next;
+            next = tmp;
+        }
+        return Arrays.copyOf(finish, t + 1);
+    }
+
+    /**
+     * Satu giliran untuk semua state di 'in'; hasilnya ditulis ke 'out' (isi lama
+     * dibuang). Mengembalikan massa yang finish di giliran ini.
+     */
+    private double applyTurn(Dist in, Dist out, ForkJoinPool pool) {
+        // Transisi state yang punya massa dibangun dulu secara serial (trie bisa tumbuh),
+        // setelah itu struktur hanya dibaca sehingga aman dibagi ke banyak thread
+        long[] bits = in.bits;
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0; word &= word - 1) {
+                int s = (w << 6) + Long.numberOfTrailingZeros(word);
+                if (in.mass[s] < pruneMass) {
+                    pruned += in.mass[s];
+                    in.mass[s] = 0;
+                    bits[w] &= ~(1L << s);
+                } else if (dest[s * SLOTS] == UNKNOWN) {
+                    expand(s);
+                }
+            }
+        }
+        int n = stateCount;
+        int words = bits.length;
+        double[] result;
+        if (words <= PARALLEL_WORDS || pool.getParallelism() == 1) {
+            result = new double[n + 2];
+            scatter(in, 0, words, result);
+        } else {
+            int chunk = Math.max(PARALLEL_WORDS / 4, words / (pool.getParallelism() * 2) + 1);
+            result = pool.invoke(new ScatterTask(in, 0, words, chunk, n));
+        }
+        // Dua elemen terakhir: massa yang finish dan massa yang jatuh ke state LOST
+        double finished = result[n];
+        pruned += result[n + 1];
+        result[n] = 0;
+        result[n + 1] = 0;
+        out.adopt(result, n);
+        return finished;
+    }
+
+    private void scatter(Dist in, int fromWord, int toWord, double[] out) {
+        int finishedIdx = out.length - 2;
+        int lostIdx = out.length - 1;
+        for (int w = fromWord; w < toWord; w++) {
+            for (long word = in.bits[w]; word != 0; word &= word - 1) {
+                int s = (w << 6) + Long.numberOfTrailingZeros(word);
+                double m = in.mass[s];
+                int base = s * SLOTS;
+                for (int k = 0; k < SLOTS; k++) {
+                    int d = dest[base + k];
+                    double p = k < DICE_SIDES ? m * P_FORWARD : m * P_BACKWARD;
+                    out[d >= 0 ? d : d == FINISHED ? finishedIdx : lostIdx] += p;
+                }
+            }
+        }
+    }
+
+    private class ScatterTask extends RecursiveTask<double[]> {
+        private final Dist in;
+        private final int fromWord;
+        private final int toWord;
+        private final int chunk;
+        private final int n;
+
+        ScatterTask(Dist in, int fromWord, int toWord, int chunk, int n) {
+            this.in = in;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+            this.chunk = chunk;
+            this.n = n;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (toWord - fromWord <= chunk) {
+                double[] out = new double[n + 2];
+                scatter(in, fromWord, toWord, out);
+                return out;
+            }
+            int mid = (fromWord + toWord) >>> 1;
+            ScatterTask left = new ScatterTask(in, fromWord, mid, chunk, n);
+            ScatterTask right = new ScatterTask(in, mid, toWord, chunk, n);
+            left.fork();
+            double[] result = right.compute();
+            double[] other = left.join();
+            for (int i = 0; i < result.length; i++) result[i] += other[i];
+            return result;
+        }
+    }
+
+    /**
+     * Vektor peluang: array massa penuh plus bitmap state yang tidak nol. Iterasi
+     * lewat bitmap tetap berurutan menurut id state tetapi melompati state kosong,
+     * jadi giliran bonus yang hanya menyentuh state bintang tetap murah.
+     */
+    private static final class Dist {
+        double[] mass = new double[64];
+        long[] bits = new long[1];
+
+        void add(int s, double m) {
+            if (s >= mass.length || (s >>> 6) >= bits.length) grow(s + 1);
+            mass[s] += m;
+            bits[s >>> 6] |= 1L << s;
+        }
+
+        /** Memakai array hasil scatter langsung sebagai isi vektor. */
+        void adopt(double[] dense, int n) {
+            mass = dense;
+            bits = new long[(n + 63) >>> 6];
+            for (int s = 0; s < n; s++) {
+                if (dense[s] != 0) bits[s >>> 6] |= 1L << s;
+            }
+        }
+
+        void clear() {
+            for (int w = 0; w < bits.length; w++) {
+                for (long word = bits[w]; word != 0; word &= word - 1) {
+                    mass[(w << 6) + Long.numberOfTrailingZeros(word)] = 0;
+                }
+                bits[w] = 0;
+            }
+        }
+
+        private void grow(int n) {
+            mass = Arrays.copyOf(mass, Math.max(n, mass.length * 2));
+            bits = Arrays.copyOf(bits, (mass.length + 63) >>> 6);
+        }
+    }
+
+    // ================== TRIE ==================
+
+    /** Menghitung 12 hasil giliran dari state s: dadu 1..6 maju, lalu 1..6 mundur. */
+    private void expand(int s) {
+        int p = pos[s];
+        boolean boost = GameEngine.isPrime(p);
+        int[] out = new int[SLOTS];
+        for (int k = 1; k <= DICE_SIDES; k++) {
+            // Maju k langkah; berhenti di node terakhir (game selesai)
+            int cur = s;
+            for (int step = 0; step < k && cur >= 0; step++) {
+                int from = pos[cur];
+                int to = boost ? nextHop[from] : board.getNextForward(from);
+                if (to > board.size) to = board.size;
+                if (to <= 0) to = Math.min(board.size, from + 1);
+                cur = to >= board.size ? FINISHED : push(cur, to);
+            }
+            out[k - 1] = cur;
+
+            // Mundur k langkah = naik k level di trie (berhenti jika stack habis)
+            cur = s;
+            for (int step = 0; step < k && depth[cur] > 0; step++) cur = parent[cur];
+            out[DICE_SIDES + k - 1] = cur;
+        }
+        // push() bisa memperbesar array dest, jadi ditulis setelahnya
+        System.arraycopy(out, 0, dest, s * SLOTS, SLOTS);
+    }
+
+    /** State setelah posisi state s di-push dan pemain pindah ke 'to'. */
+    private int push(int s, int to) {
+        if (historyDepth > 0 && depth[s] == historyDepth) {
+            // Stack penuh: elemen terbawah dibuang, sama seperti IntStack terbatas
+            int t = tailOf(s);
+            return t < 0 ? LOST : child(t, to);
+        }
+        return child(s, to);
+    }
+
+    private int tailOf(int s) {
+        if (tail[s] != UNKNOWN) return tail[s];
+        int t;
+        if (depth[s] == 1) {
+            t = rootAt[pos[s]];
+            if (t < 0) {
+                t = newState(-1, pos[s], 0);
+                if (t >= 0) rootAt[pos[s]] = t;
+            }
+        } else {
+            int pt = tailOf(parent[s]);
+            t = pt < 0 ? LOST : child(pt, pos[s]);
+        }
+        if (t >= 0) tail[s] = t;
+        return t;
+    }
+
+    private int child(int s, int to) {
+        int a = childA[s];
+        if (a >= 0 && pos[a] == to) return a;
+        int b = childB[s];
+        if (b >= 0 && pos[b] == to) return b;
+        int c = newState(s, to, depth[s] + 1);
+        if (c < 0) return LOST;
+        if (childA[s] < 0) childA[s] = c;
+        else if (childB[s] < 0) childB[s] = c;
+        else throw new IllegalStateException("State " + s + " punya lebih dari dua langkah maju.");
+        return c;
+    }
+
+    /** Mengembalikan LOST jika jumlah state sudah mencapai maxStates. */
+    private int newState(int par, int position, int d) {
+        if (stateCount == maxStates) return LOST;
+        if (stateCount == pos.length) {
+            int cap = pos.length * 2;
+            parent = Arrays.copyOf(parent, cap);
+            pos = Arrays.copyOf(pos, cap);
+            depth = Arrays.copyOf(depth, cap);
+            childA = Arrays.copyOf(childA, cap);
+            childB = Arrays.copyOf(childB, cap);
+            tail = Arrays.copyOf(tail, cap);
+            int oldDest = dest.length;
+            dest = Arrays.copyOf(dest, cap * SLOTS);
+            Arrays.fill(dest, oldDest, dest.length, UNKNOWN);
+        }
+        int s = stateCount++;
+        parent[s] = par;
+        pos[s] = position;
+        depth[s] = d;
+        childA[s] = -1;
+        childB[s] = -1;
+        tail[s] = UNKNOWN;
+        return s;
+    }
+
+    // ================== MAIN ==================
+
+    public static void main(String[] args) {
+        int size = BoardEditor.parseBoardSize(args);
+        long seed = BoardEditor.parseRandom(args).nextLong();
+        int players = BoardEditor.parseIntArg(args, "--players=", MonteCarloSimulator.MIN_PLAYERS);
+        int links = BoardEditor.parseIntArg(args, "--links=", Math.min(BoardEditor.BoardGraph.DEFAULT_LINK_COUNT,
+                BoardEditor.BoardGraph.maxExtraLinks(size)));
+        int candidates = Math.max(1, BoardEditor.parseIntArg(args, "--candidates=", 1));
+        int undoDepth = Math.max(0, BoardEditor.parseIntArg(args, "--undo-depth=", IntStack.UNBOUNDED));
+        int maxStates = BoardEditor.parseIntArg(args, "--max-states=", DEFAULT_MAX_STATES);
+        String boardPath = BoardEditor.parseStringArg(args, "--board=", null);
+
+        if (boardPath != null) {
+            BoardFile file;
+            try {
+                file = BoardFile.read(Paths.get(boardPath));
+            } catch (IOException e) {
+                System.err.println("Gagal membaca papan: " + e.getMessage());
+                return;
+            }
+            if (!file.hasLinks()) {
+                System.err.println(boardPath + " tidak menyimpan shortcut.");
+                return;
+            }
+            report(boardPath, new WinProbabilityCalculator(file.toBoardGraph(), undoDepth, maxStates), players);
+            return;
+        }
+
+        // Kandidat pertama sama dengan papan MonteCarloSimulator untuk seed yang sama
+        SplittableRandom boardRng = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        Result best = null;
+        int bestIdx = -1;
+        for (int c = 0; c < candidates; c++) {
+            BoardEditor.BoardGraph board = new BoardEditor.BoardGraph(size, links, boardRng.split());
+            Result r = report("Papan " + (c + 1) + " (" + size + " node, " + links + " shortcut, seed " + seed + ")",
+                    new WinProbabilityCalculator(board, undoDepth, maxStates), players);
+            if (best == null || r.seatImbalance() < best.seatImbalance()) {
+                best = r;
+                bestIdx = c;
+            }
+        }
+        if (candidates > 1) {
+            System.out.printf("Paling adil: papan %d (selisih kursi %.4f%%) | total %.2f s%n",
+                    bestIdx + 1, best.seatImbalance() * 100, (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    private static Result report(String label, WinProbabilityCalculator calc, int players) {
+        long start = System.nanoTime();
+        Result r = calc.compute(players);
+        System.out.println(label);
+        System.out.println(r);
+        System.out.printf("Waktu: %.3f s%n%n", (System.nanoTime() - start) / 1e9);
+        return r;
+    }
+}